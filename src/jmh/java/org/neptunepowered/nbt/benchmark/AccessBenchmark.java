@@ -0,0 +1,97 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt.benchmark;
+
+import org.neptunepowered.nbt.CompoundTag;
+import org.neptunepowered.nbt.ListTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the typed getters of {@link CompoundTag} and
+ * {@link ListTag}.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessBenchmark {
+
+    private CompoundTag player;
+    private CompoundTag gameRules;
+    private ListTag position;
+
+    @Setup
+    public void setup() {
+        this.player = Fixtures.player();
+        this.gameRules = Fixtures.level().getCompound("Data").getCompound("GameRules");
+        this.position = (ListTag) this.player.get("Pos");
+    }
+
+    @Benchmark
+    public void getSmallCompound(final Blackhole blackhole) {
+        final CompoundTag abilities = this.player.getCompound("abilities");
+        blackhole.consume(abilities.getByte("mayfly"));
+        blackhole.consume(abilities.getFloat("walkSpeed"));
+        blackhole.consume(abilities.getFloat("flySpeed"));
+    }
+
+    @Benchmark
+    public void getLargeCompound(final Blackhole blackhole) {
+        blackhole.consume(this.player.getInt("XpLevel"));
+        blackhole.consume(this.player.getString("Dimension"));
+        blackhole.consume(this.player.getIntArray("UUID"));
+        blackhole.consume(this.gameRules.getString("rule17"));
+    }
+
+    @Benchmark
+    public void getMissing(final Blackhole blackhole) {
+        blackhole.consume(this.player.getInt("missing"));
+        blackhole.consume(this.player.getCompound("abilities").getLong("missing"));
+    }
+
+    @Benchmark
+    public double getListDoubles() {
+        return this.position.getDouble(0) + this.position.getDouble(1) + this.position.getDouble(2);
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt.benchmark;
+
+import org.neptunepowered.nbt.ByteArrayTag;
+import org.neptunepowered.nbt.ByteBufferInput;
+import org.neptunepowered.nbt.IntArrayTag;
+import org.neptunepowered.nbt.LongArrayTag;
+import org.neptunepowered.nbt.StreamInput;
+import org.neptunepowered.nbt.StreamOutput;
+import org.neptunepowered.nbt.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for round-tripping the array tags, through both streams and
+ * buffers.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayBenchmark {
+
+    @Param({"byte", "int", "long"})
+    public String type;
+
+    @Param({"256", "4096"})
+    public int length;
+
+    private Tag tag;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0xA77A);
+        switch (this.type) {
+            case "byte": {
+                final byte[] value = new byte[this.length];
+                random.nextBytes(value);
+                this.tag = new ByteArrayTag(value);
+                break;
+            }
+            case "int": {
+                final int[] value = new int[this.length];
+                for (int i = 0; i < value.length; i++) {
+                    value[i] = random.nextInt();
+                }
+                this.tag = new IntArrayTag(value);
+                break;
+            }
+            case "long": {
+                final long[] value = new long[this.length];
+                for (int i = 0; i < value.length; i++) {
+                    value[i] = random.nextLong();
+                }
+                this.tag = new LongArrayTag(value);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown array type " + this.type + "!");
+        }
+        this.out = new ByteArrayOutputStream(Integer.BYTES + this.length * Long.BYTES);
+    }
+
+    private Tag create() {
+        switch (this.type) {
+            case "byte": return new ByteArrayTag();
+            case "int": return new IntArrayTag();
+            default: return new LongArrayTag();
+        }
+    }
+
+    private byte[] write() throws IOException {
+        this.out.reset();
+        final StreamOutput output = new StreamOutput(this.out);
+        this.tag.write(output);
+        output.flush();
+        return this.out.toByteArray();
+    }
+
+    @Benchmark
+    public Tag roundTripStream() throws IOException {
+        final Tag read = this.create();
+        read.read(new StreamInput(new ByteArrayInputStream(this.write())));
+        return read;
+    }
+
+    @Benchmark
+    public Tag roundTripBuffer() throws IOException {
+        final Tag read = this.create();
+        read.read(new ByteBufferInput(ByteBuffer.wrap(this.write())));
+        return read;
+    }
+
+}
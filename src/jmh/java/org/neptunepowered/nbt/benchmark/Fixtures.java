@@ -0,0 +1,323 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt.benchmark;
+
+import org.neptunepowered.nbt.CompoundTag;
+import org.neptunepowered.nbt.ListTag;
+import org.neptunepowered.nbt.NbtIo;
+import org.neptunepowered.nbt.StringTag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * Realistic NBT data for benchmarking, shaped after the files found in
+ * a world save. All data is generated from a fixed seed, so every run
+ * sees the same input.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class Fixtures {
+
+    private static final String[] BLOCKS = {
+            "minecraft:air", "minecraft:stone", "minecraft:dirt", "minecraft:grass_block",
+            "minecraft:water", "minecraft:oak_log", "minecraft:oak_leaves", "minecraft:iron_ore",
+    };
+
+    private static final String[] ITEMS = {
+            "minecraft:diamond_sword", "minecraft:cobblestone", "minecraft:torch", "minecraft:bread",
+            "minecraft:iron_pickaxe", "minecraft:oak_planks", "minecraft:arrow", "minecraft:bow",
+    };
+
+    /**
+     * Gets the named fixture.
+     *
+     * @param name The fixture name, one of {@code chunk}, {@code player} or {@code level}
+     * @return The fixture
+     */
+    public static CompoundTag get(final String name) {
+        switch (name) {
+            case "chunk": return chunk();
+            case "player": return player();
+            case "level": return level();
+        }
+        throw new IllegalArgumentException("Unknown fixture " + name + "!");
+    }
+
+    /**
+     * Creates a chunk, as would be found in a region file.
+     *
+     * @return The chunk
+     */
+    public static CompoundTag chunk() {
+        final Random random = new Random(0xC0FFEE);
+        final CompoundTag level = new CompoundTag();
+        level.putInt("xPos", 12);
+        level.putInt("zPos", -3);
+        level.putLong("LastUpdate", 6_000_000L);
+        level.putLong("InhabitedTime", 42_000L);
+        level.putString("Status", "full");
+        level.putIntArray("Biomes", randomInts(random, 1024, 64));
+
+        final CompoundTag heightmaps = new CompoundTag();
+        heightmaps.putLongArray("MOTION_BLOCKING", randomLongs(random, 37));
+        heightmaps.putLongArray("WORLD_SURFACE", randomLongs(random, 37));
+        heightmaps.putLongArray("OCEAN_FLOOR", randomLongs(random, 37));
+        level.putCompound("Heightmaps", heightmaps);
+
+        final ListTag sections = new ListTag();
+        for (int y = 0; y < 16; y++) {
+            final CompoundTag section = new CompoundTag();
+            section.putByte("Y", (byte) y);
+            section.putLongArray("BlockStates", randomLongs(random, 256));
+            section.putByteArray("BlockLight", randomBytes(random, 2048));
+            section.putByteArray("SkyLight", randomBytes(random, 2048));
+
+            final ListTag palette = new ListTag();
+            for (final String block : BLOCKS) {
+                final CompoundTag state = new CompoundTag();
+                state.putString("Name", block);
+                if (random.nextBoolean()) {
+                    final CompoundTag properties = new CompoundTag();
+                    properties.putString("axis", "y");
+                    properties.putString("waterlogged", "false");
+                    state.putCompound("Properties", properties);
+                }
+                palette.add(state);
+            }
+            section.put("Palette", palette);
+            sections.add(section);
+        }
+        level.put("Sections", sections);
+
+        final ListTag entities = new ListTag();
+        for (int i = 0; i < 24; i++) {
+            entities.add(entity(random));
+        }
+        level.put("Entities", entities);
+
+        final ListTag tileEntities = new ListTag();
+        for (int i = 0; i < 8; i++) {
+            final CompoundTag chest = new CompoundTag();
+            chest.putString("id", "minecraft:chest");
+            chest.putInt("x", random.nextInt(16));
+            chest.putInt("y", random.nextInt(256));
+            chest.putInt("z", random.nextInt(16));
+            chest.put("Items", inventory(random, 27));
+            tileEntities.add(chest);
+        }
+        level.put("TileEntities", tileEntities);
+
+        final CompoundTag root = new CompoundTag();
+        root.putInt("DataVersion", 2230);
+        root.putCompound("Level", level);
+        return root;
+    }
+
+    /**
+     * Creates a player, as would be found in a player data file.
+     *
+     * @return The player
+     */
+    public static CompoundTag player() {
+        final Random random = new Random(0xBEEF);
+        final CompoundTag player = entity(random);
+        player.putInt("DataVersion", 2230);
+        player.putInt("playerGameType", 0);
+        player.putInt("XpLevel", 30);
+        player.putFloat("XpP", 0.5F);
+        player.putInt("foodLevel", 20);
+        player.putFloat("foodSaturationLevel", 5.0F);
+        player.putString("Dimension", "minecraft:overworld");
+        player.put("Inventory", inventory(random, 36));
+        player.put("EnderItems", inventory(random, 27));
+
+        final CompoundTag abilities = new CompoundTag();
+        abilities.putByte("invulnerable", (byte) 0);
+        abilities.putByte("mayfly", (byte) 0);
+        abilities.putByte("instabuild", (byte) 0);
+        abilities.putFloat("walkSpeed", 0.1F);
+        abilities.putFloat("flySpeed", 0.05F);
+        player.putCompound("abilities", abilities);
+
+        final CompoundTag recipes = new CompoundTag();
+        final ListTag known = new ListTag();
+        for (int i = 0; i < 200; i++) {
+            known.add(new StringTag("minecraft:recipe_" + i));
+        }
+        recipes.put("recipes", known);
+        player.putCompound("recipeBook", recipes);
+        return player;
+    }
+
+    /**
+     * Creates level data, as would be found in a {@code level.dat} file.
+     *
+     * @return The level data
+     */
+    public static CompoundTag level() {
+        final CompoundTag data = new CompoundTag();
+        data.putString("LevelName", "New World");
+        data.putLong("RandomSeed", 0x5EEDL);
+        data.putLong("Time", 1_234_567L);
+        data.putLong("DayTime", 6_000L);
+        data.putInt("SpawnX", 0);
+        data.putInt("SpawnY", 64);
+        data.putInt("SpawnZ", 0);
+        data.putByte("hardcore", (byte) 0);
+        data.putByte("raining", (byte) 0);
+        data.putInt("GameType", 0);
+        data.putString("generatorName", "default");
+
+        final CompoundTag version = new CompoundTag();
+        version.putInt("Id", 2230);
+        version.putString("Name", "1.15.2");
+        version.putByte("Snapshot", (byte) 0);
+        data.putCompound("Version", version);
+
+        final CompoundTag gameRules = new CompoundTag();
+        for (int i = 0; i < 32; i++) {
+            gameRules.putString("rule" + i, i % 3 == 0 ? "false" : "true");
+        }
+        data.putCompound("GameRules", gameRules);
+
+        final CompoundTag root = new CompoundTag();
+        root.putCompound("Data", data);
+        return root;
+    }
+
+    /**
+     * Serialises the tag, as by {@link NbtIo#writeStream(CompoundTag, java.io.OutputStream)}.
+     *
+     * @param tag The tag
+     * @return The serialised tag
+     */
+    public static byte[] serialise(final CompoundTag tag) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            NbtIo.writeStream(tag, out);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Serialises and compresses the tag, as by
+     * {@link NbtIo#writeCompressedStream(CompoundTag, java.io.OutputStream)}.
+     *
+     * @param tag The tag
+     * @return The compressed tag
+     */
+    public static byte[] compress(final CompoundTag tag) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            NbtIo.writeCompressedStream(tag, out);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static CompoundTag entity(final Random random) {
+        final CompoundTag entity = new CompoundTag();
+        entity.putString("id", "minecraft:zombie");
+        entity.putFloat("Health", 20.0F);
+        entity.putShort("Air", (short) 300);
+        entity.putShort("Fire", (short) -1);
+        entity.putFloat("FallDistance", 0.0F);
+        entity.putByte("OnGround", (byte) 1);
+        entity.putIntArray("UUID", randomInts(random, 4, Integer.MAX_VALUE));
+        entity.put("Pos", doubles(random.nextDouble() * 16, 64.0, random.nextDouble() * 16));
+        entity.put("Motion", doubles(0.0, -0.0784, 0.0));
+
+        final ListTag rotation = new ListTag();
+        rotation.addFloat(random.nextFloat() * 360);
+        rotation.addFloat(0.0F);
+        entity.put("Rotation", rotation);
+        return entity;
+    }
+
+    private static ListTag inventory(final Random random, final int slots) {
+        final ListTag items = new ListTag();
+        for (int slot = 0; slot < slots; slot++) {
+            if (random.nextInt(3) == 0) {
+                continue;
+            }
+            final CompoundTag item = new CompoundTag();
+            item.putByte("Slot", (byte) slot);
+            item.putString("id", ITEMS[random.nextInt(ITEMS.length)]);
+            item.putByte("Count", (byte) (1 + random.nextInt(64)));
+            if (random.nextInt(4) == 0) {
+                final CompoundTag tag = new CompoundTag();
+                tag.putInt("Damage", random.nextInt(250));
+                final CompoundTag display = new CompoundTag();
+                display.putString("Name", "{\"text\":\"Item " + slot + "\"}");
+                tag.putCompound("display", display);
+                item.putCompound("tag", tag);
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static ListTag doubles(final double... values) {
+        final ListTag list = new ListTag();
+        for (final double value : values) {
+            list.addDouble(value);
+        }
+        return list;
+    }
+
+    private static byte[] randomBytes(final Random random, final int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static int[] randomInts(final Random random, final int length, final int bound) {
+        final int[] ints = new int[length];
+        for (int i = 0; i < length; i++) {
+            ints[i] = random.nextInt(bound);
+        }
+        return ints;
+    }
+
+    private static long[] randomLongs(final Random random, final int length) {
+        final long[] longs = new long[length];
+        for (int i = 0; i < length; i++) {
+            longs[i] = random.nextLong();
+        }
+        return longs;
+    }
+
+    private Fixtures() {
+    }
+
+}
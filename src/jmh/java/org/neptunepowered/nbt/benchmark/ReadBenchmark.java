@@ -0,0 +1,97 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt.benchmark;
+
+import org.neptunepowered.nbt.CompoundTag;
+import org.neptunepowered.nbt.NbtIo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reading whole files through {@link NbtIo}.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadBenchmark {
+
+    @Param({"chunk", "player", "level"})
+    public String fixture;
+
+    private byte[] uncompressed;
+    private byte[] compressed;
+    private ByteBuffer direct;
+
+    @Setup
+    public void setup() {
+        final CompoundTag tag = Fixtures.get(this.fixture);
+        this.uncompressed = Fixtures.serialise(tag);
+        this.compressed = Fixtures.compress(tag);
+        this.direct = ByteBuffer.allocateDirect(this.uncompressed.length);
+        this.direct.put(this.uncompressed).flip();
+    }
+
+    @Benchmark
+    public CompoundTag readStream() throws IOException {
+        return NbtIo.readStream(new ByteArrayInputStream(this.uncompressed));
+    }
+
+    @Benchmark
+    public CompoundTag readHeapBuffer() throws IOException {
+        return NbtIo.read(ByteBuffer.wrap(this.uncompressed));
+    }
+
+    @Benchmark
+    public CompoundTag readDirectBuffer() throws IOException {
+        return NbtIo.read(this.direct.duplicate());
+    }
+
+    @Benchmark
+    public CompoundTag readCompressedStream() throws IOException {
+        return NbtIo.readCompressedStream(new ByteArrayInputStream(this.compressed));
+    }
+
+}
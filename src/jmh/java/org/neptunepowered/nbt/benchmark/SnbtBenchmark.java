@@ -0,0 +1,108 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt.benchmark;
+
+import org.neptunepowered.nbt.CompoundTag;
+import org.neptunepowered.nbt.NbtIo;
+import org.neptunepowered.nbt.Snbt;
+import org.neptunepowered.nbt.StreamOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reading and writing SNBT through {@link Snbt}, against
+ * the equivalent binary paths.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnbtBenchmark {
+
+    @Param({"chunk", "player", "level"})
+    public String fixture;
+
+    private CompoundTag tag;
+    private String snbt;
+    private byte[] binary;
+    private StringBuilder builder;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() {
+        this.tag = Fixtures.get(this.fixture);
+        this.snbt = Snbt.write(this.tag);
+        this.binary = Fixtures.serialise(this.tag);
+        this.builder = new StringBuilder(this.snbt.length());
+        this.out = new ByteArrayOutputStream(this.binary.length);
+    }
+
+    @Benchmark
+    public CompoundTag readSnbt() throws IOException {
+        return Snbt.read(this.snbt);
+    }
+
+    @Benchmark
+    public CompoundTag readBinary() throws IOException {
+        return NbtIo.readStream(new ByteArrayInputStream(this.binary));
+    }
+
+    @Benchmark
+    public int writeSnbt() throws IOException {
+        this.builder.setLength(0);
+        Snbt.write(this.tag, this.builder);
+        return this.builder.length();
+    }
+
+    @Benchmark
+    public int writeBinary() throws IOException {
+        this.out.reset();
+        final StreamOutput output = new StreamOutput(this.out);
+        this.tag.write(output);
+        output.flush();
+        return this.out.size();
+    }
+
+}
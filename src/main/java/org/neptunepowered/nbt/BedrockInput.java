@@ -0,0 +1,227 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An {@link NbtInput} reading the Bedrock Edition layouts of NBT from
+ * another {@link DataInput input}, which is expected to be big-endian.
+ *
+ * <p>Values are little-endian, byte-swapped as they are read rather than
+ * in a separate pass, and strings are standard UTF-8. Should varints be
+ * in use, as they are on the network, integers and longs are instead
+ * zigzag encoded varints, and strings are preceded by a varint
+ * length.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ * @see NbtFormat#BEDROCK
+ * @see NbtFormat#BEDROCK_NETWORK
+ */
+final class BedrockInput implements NbtInput {
+
+    private final DataInput input;
+    private final boolean varInt;
+
+    BedrockInput(final DataInput input, final boolean varInt) {
+        this.input = input;
+        this.varInt = varInt;
+    }
+
+    /**
+     * Establishes whether integers, longs and lengths are varints, and so
+     * vary in size.
+     *
+     * @return {@code true} if varints are in use; {@code false} otherwise
+     */
+    boolean isVarInt() {
+        return this.varInt;
+    }
+
+    @Override
+    public void readFully(final byte[] b) throws IOException {
+        this.input.readFully(b);
+    }
+
+    @Override
+    public void readFully(final byte[] b, final int off, final int len) throws IOException {
+        this.input.readFully(b, off, len);
+    }
+
+    @Override
+    public int skipBytes(final int n) throws IOException {
+        return this.input.skipBytes(n);
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return this.input.readBoolean();
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        return this.input.readByte();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return this.input.readUnsignedByte();
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return Short.reverseBytes(this.input.readShort());
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return this.readShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return Character.reverseBytes(this.input.readChar());
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        if (this.varInt) {
+            final int value = this.readUnsignedVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+        return Integer.reverseBytes(this.input.readInt());
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        if (this.varInt) {
+            final long value = this.readUnsignedVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+        return Long.reverseBytes(this.input.readLong());
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(Integer.reverseBytes(this.input.readInt()));
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(Long.reverseBytes(this.input.readLong()));
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        return this.input.readLine();
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        final int length = this.varInt ? this.readUnsignedVarInt() : this.readUnsignedShort();
+        if (length < 0) {
+            throw new IOException("Invalid string length " + (length & 0xFFFFFFFFL) + "!");
+        }
+        final byte[] bytes = new byte[length];
+        this.input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Tag canonicalize(final Tag tag) {
+        return this.input instanceof NbtInput ? ((NbtInput) this.input).canonicalize(tag) : tag;
+    }
+
+    @Override
+    public int readLength(final int width) throws IOException {
+        final int length = NbtInput.super.readLength(width);
+        if (this.input instanceof ByteBufferInput) {
+            // Varints may occupy as little as a single byte
+            final long size = (long) length * (this.varInt ? 1 : width);
+            if (size > ((ByteBufferInput) this.input).remaining()) {
+                throw new EOFException();
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public void readInts(final int[] values, final int offset, final int length) throws IOException {
+        if (this.varInt || !(this.input instanceof NbtInput)) {
+            NbtInput.super.readInts(values, offset, length);
+            return;
+        }
+
+        // Read in bulk, and then swap in place
+        ((NbtInput) this.input).readInts(values, offset, length);
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = Integer.reverseBytes(values[i]);
+        }
+    }
+
+    @Override
+    public void readLongs(final long[] values, final int offset, final int length) throws IOException {
+        if (this.varInt || !(this.input instanceof NbtInput)) {
+            NbtInput.super.readLongs(values, offset, length);
+            return;
+        }
+
+        // Read in bulk, and then swap in place
+        ((NbtInput) this.input).readLongs(values, offset, length);
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = Long.reverseBytes(values[i]);
+        }
+    }
+
+    private int readUnsignedVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = this.input.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt is too long!");
+    }
+
+    private long readUnsignedVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            final byte b = this.input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarLong is too long!");
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An {@link NbtOutput} writing the Bedrock Edition layouts of NBT to
+ * another {@link DataOutput output}, which is expected to be big-endian.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ * @see BedrockInput
+ */
+final class BedrockOutput implements NbtOutput {
+
+    private final DataOutput output;
+    private final boolean varInt;
+
+    BedrockOutput(final DataOutput output, final boolean varInt) {
+        this.output = output;
+        this.varInt = varInt;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.output.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.output.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        this.output.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.output.writeBoolean(v);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        this.output.writeByte(v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        this.output.writeShort(Short.reverseBytes((short) v));
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        this.output.writeChar(Character.reverseBytes((char) v));
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        if (this.varInt) {
+            this.writeUnsignedVarInt((v << 1) ^ (v >> 31));
+        } else {
+            this.output.writeInt(Integer.reverseBytes(v));
+        }
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        if (this.varInt) {
+            this.writeUnsignedVarLong((v << 1) ^ (v >> 63));
+        } else {
+            this.output.writeLong(Long.reverseBytes(v));
+        }
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        this.output.writeInt(Integer.reverseBytes(Float.floatToIntBits(v)));
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        this.output.writeLong(Long.reverseBytes(Double.doubleToLongBits(v)));
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        this.output.writeBytes(s);
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            this.writeChar(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (this.varInt) {
+            this.writeUnsignedVarInt(bytes.length);
+        } else {
+            if (bytes.length > 0xFFFF) {
+                throw new UTFDataFormatException("Encoded string too long: " + bytes.length + " bytes");
+            }
+            this.writeShort(bytes.length);
+        }
+        this.output.write(bytes);
+    }
+
+    private void writeUnsignedVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            this.output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.output.writeByte(value);
+    }
+
+    private void writeUnsignedVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            this.output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.output.writeByte((int) value);
+    }
+
+}
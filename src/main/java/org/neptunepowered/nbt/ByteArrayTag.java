@@ -30,6 +30,7 @@
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * A byte array tag.
@@ -40,6 +41,7 @@
 public class ByteArrayTag implements Tag {
 
     private byte[] value;
+    private boolean frozen;
 
     public ByteArrayTag() {
     }
@@ -57,9 +59,30 @@ public byte[] getValue() {
         return this.value;
     }
 
+    @Override
+    public ByteArrayTag copy() {
+        return new ByteArrayTag(this.value == null ? null : this.value.clone());
+    }
+
+    /**
+     * Freezes the tag, such that it can no longer be
+     * {@link #read(DataInput) read} into. As the array is not copied, it
+     * must not be modified once frozen.
+     *
+     * @return This tag
+     */
+    @Override
+    public ByteArrayTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
     @Override
     public void read(final DataInput input) throws IOException {
-        final int length = input.readInt();
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen tags can't be modified!");
+        }
+        final int length = ListTag.readLength(input, Byte.BYTES);
         this.value = new byte[length];
         input.readFully(this.value);
     }
@@ -70,6 +93,33 @@ public void write(final DataOutput output) throws IOException {
         output.write(this.value);
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ByteArrayTag)) {
+            return false;
+        }
+        final ByteArrayTag that = (ByteArrayTag) obj;
+        return Arrays.equals(this.value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.value);
+    }
+
+    @Override
+    public int serializedSize() {
+        return 4 + this.value.length;
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        return HeapSize.object(HeapSize.REFERENCE + 1) + (this.value == null ? 0 : HeapSize.array(this.value.length, 1));
+    }
+
     @Override
     public byte getId() {
         return TAG_BYTE_ARRAY;
@@ -0,0 +1,297 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link NbtInput} backed by a {@link ByteBuffer}, either heap or
+ * direct.
+ *
+ * <p>Every read is bounds-checked against the buffer's limit, and
+ * reading beyond it raises an {@link EOFException}, as it would for a
+ * stream.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class ByteBufferInput implements NbtInput {
+
+    private final ByteBuffer buffer;
+    private final KeyPool pool;
+    private final TagPool tags;
+    private byte[] scratch;
+
+    /**
+     * Creates an input reading from the given {@link ByteBuffer buffer},
+     * between its current position and limit.
+     *
+     * <p>The input operates on a duplicate of the buffer, so neither the
+     * position nor the byte order of the given buffer will be modified.</p>
+     *
+     * @param buffer The buffer
+     */
+    public ByteBufferInput(final ByteBuffer buffer) {
+        this(buffer, null);
+    }
+
+    /**
+     * Creates an input reading from the given {@link ByteBuffer buffer},
+     * between its current position and limit, pooling the names of tags
+     * within compounds.
+     *
+     * @param buffer The buffer
+     * @param pool The pool of names, or {@code null} to not pool names
+     * @see #ByteBufferInput(ByteBuffer)
+     */
+    public ByteBufferInput(final ByteBuffer buffer, final KeyPool pool) {
+        this(buffer, pool, null);
+    }
+
+    /**
+     * Creates an input reading from the given {@link ByteBuffer buffer},
+     * between its current position and limit, pooling the names of tags
+     * within compounds, and equal tags.
+     *
+     * @param buffer The buffer
+     * @param pool The pool of names, or {@code null} to not pool names
+     * @param tags The pool of tags, or {@code null} to not pool tags
+     * @see #ByteBufferInput(ByteBuffer)
+     */
+    public ByteBufferInput(final ByteBuffer buffer, final KeyPool pool, final TagPool tags) {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.pool = pool;
+        this.tags = tags;
+    }
+
+    /**
+     * Gets the absolute position of the next byte to be read.
+     *
+     * @return The position
+     */
+    public int position() {
+        return this.buffer.position();
+    }
+
+    /**
+     * Gets the number of bytes remaining to be read.
+     *
+     * @return The number of remaining bytes
+     */
+    public int remaining() {
+        return this.buffer.remaining();
+    }
+
+    /**
+     * Gets a view of the bytes between the given absolute positions,
+     * sharing the content of the underlying buffer.
+     *
+     * @param start The position of the first byte, inclusive
+     * @param end The position of the last byte, exclusive
+     * @return The slice
+     */
+    ByteBuffer slice(final int start, final int end) {
+        final ByteBuffer slice = this.buffer.duplicate();
+        slice.limit(end);
+        slice.position(start);
+        return slice.slice();
+    }
+
+    private void require(final long length) throws EOFException {
+        if (this.buffer.remaining() < length) {
+            throw new EOFException();
+        }
+    }
+
+    @Override
+    public void readFully(final byte[] b) throws IOException {
+        this.readFully(b, 0, b.length);
+    }
+
+    @Override
+    public void readFully(final byte[] b, final int off, final int len) throws IOException {
+        this.require(len);
+        this.buffer.get(b, off, len);
+    }
+
+    @Override
+    public int skipBytes(final int n) {
+        final int skipped = Math.max(0, Math.min(n, this.buffer.remaining()));
+        this.buffer.position(this.buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int readLength(final int width) throws IOException {
+        final int length = NbtInput.super.readLength(width);
+        this.require((long) length * width);
+        return length;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return this.readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        this.require(Byte.BYTES);
+        return this.buffer.get();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return this.readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        this.require(Short.BYTES);
+        return this.buffer.getShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return this.readShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        this.require(Character.BYTES);
+        return this.buffer.getChar();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        this.require(Integer.BYTES);
+        return this.buffer.getInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        this.require(Long.BYTES);
+        return this.buffer.getLong();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        this.require(Float.BYTES);
+        return this.buffer.getFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        this.require(Double.BYTES);
+        return this.buffer.getDouble();
+    }
+
+    @Override
+    public String readLine() {
+        if (!this.buffer.hasRemaining()) {
+            return null;
+        }
+
+        final StringBuilder line = new StringBuilder();
+        while (this.buffer.hasRemaining()) {
+            final char c = (char) (this.buffer.get() & 0xFF);
+            if (c == '\n') {
+                break;
+            }
+            if (c == '\r') {
+                if (this.buffer.hasRemaining() && this.buffer.get(this.buffer.position()) == '\n') {
+                    this.buffer.get();
+                }
+                break;
+            }
+            line.append(c);
+        }
+        return line.toString();
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return this.readString(null);
+    }
+
+    @Override
+    public void readInts(final int[] values, final int offset, final int length) throws IOException {
+        this.require((long) length * Integer.BYTES);
+        this.buffer.asIntBuffer().get(values, offset, length);
+        this.buffer.position(this.buffer.position() + length * Integer.BYTES);
+    }
+
+    @Override
+    public void readLongs(final long[] values, final int offset, final int length) throws IOException {
+        this.require((long) length * Long.BYTES);
+        this.buffer.asLongBuffer().get(values, offset, length);
+        this.buffer.position(this.buffer.position() + length * Long.BYTES);
+    }
+
+    @Override
+    public String readKey() throws IOException {
+        return this.readString(this.pool);
+    }
+
+    @Override
+    public Tag canonicalize(final Tag tag) {
+        return this.tags != null ? this.tags.intern(tag) : tag;
+    }
+
+    /**
+     * Reads a string, as by {@link #readUTF()}, decoding it in place where
+     * the buffer is backed by an array.
+     *
+     * @param pool The pool to intern the string with, or {@code null}
+     * @return The string
+     * @throws IOException Should an IO error occur
+     */
+    private String readString(final KeyPool pool) throws IOException {
+        final int length = this.readUnsignedShort();
+        this.require(length);
+
+        final byte[] bytes;
+        final int offset;
+        if (this.buffer.hasArray()) {
+            bytes = this.buffer.array();
+            offset = this.buffer.arrayOffset() + this.buffer.position();
+            this.buffer.position(this.buffer.position() + length);
+        } else {
+            if (this.scratch == null || this.scratch.length < length) {
+                this.scratch = new byte[Math.max(length, 64)];
+            }
+            this.buffer.get(this.scratch, 0, length);
+            bytes = this.scratch;
+            offset = 0;
+        }
+
+        return pool != null ? pool.intern(bytes, offset, length) : ModifiedUtf8.decode(bytes, offset, length);
+    }
+
+}
@@ -40,6 +40,7 @@
 public class ByteTag implements Tag {
 
     private byte value;
+    private boolean frozen;
 
     public ByteTag() {
     }
@@ -57,8 +58,34 @@ public byte getValue() {
         return this.value;
     }
 
+    /**
+     * Freezes the tag, such that it can no longer be
+     * {@link #read(DataInput) read} into.
+     *
+     * @return This tag
+     */
+    @Override
+    public ByteTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Creates a copy of the tag, unless it is frozen, in which case it is
+     * returned as is.
+     *
+     * @return The copy, which may be this tag
+     */
+    @Override
+    public ByteTag copy() {
+        return this.frozen ? this : new ByteTag(this.value);
+    }
+
     @Override
     public void read(final DataInput input) throws IOException {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen tags can't be modified!");
+        }
         this.value = input.readByte();
     }
 
@@ -67,6 +94,33 @@ public void write(final DataOutput output) throws IOException {
         output.writeByte(this.value);
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ByteTag)) {
+            return false;
+        }
+        final ByteTag that = (ByteTag) obj;
+        return this.value == that.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Byte.hashCode(this.value);
+    }
+
+    @Override
+    public int serializedSize() {
+        return 1;
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        return HeapSize.object(1 + 1);
+    }
+
     @Override
     public byte getId() {
         return TAG_BYTE;
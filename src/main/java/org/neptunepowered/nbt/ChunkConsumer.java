@@ -0,0 +1,50 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.nio.file.Path;
+
+/**
+ * A consumer of the chunks of {@link RegionFile region files}, as read by
+ * {@link NbtIo#readAll(Iterable, java.util.concurrent.Executor, long, java.util.function.BiConsumer, ChunkConsumer)}.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+@FunctionalInterface
+public interface ChunkConsumer {
+
+    /**
+     * Accepts a chunk of the given region.
+     *
+     * @param path The path of the region file
+     * @param x The x coordinate of the chunk, relative to the region
+     * @param z The z coordinate of the chunk, relative to the region
+     * @param chunk The chunk
+     */
+    void accept(final Path path, final int x, final int z, final CompoundTag chunk);
+
+}
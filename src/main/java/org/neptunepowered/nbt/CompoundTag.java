@@ -42,19 +42,75 @@
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * A compound tag is essentially a map structure, storing named
  * {@link Tag tags}.
  *
+ * <p>Compound tags read through {@link NbtIo#readLazy(java.nio.ByteBuffer)}
+ * hold on to the serialised form of their larger children, decoding each
+ * of them only once it is first accessed. Consequently, even reads of
+ * such a compound may modify it.</p>
+ *
+ * <p>Small compounds store their tags in a pair of arrays, searched
+ * linearly, which avoids the per-entry overhead of a hash map. Once a
+ * compound grows beyond eight tags, it is promoted
+ * to a {@link HashMap}.</p>
+ *
+ * <p>Once {@link #freeze() frozen}, a compound can no longer be modified,
+ * and may be shared freely between threads. Modified versions of a
+ * frozen compound are instead created through {@link #with(String, Tag)},
+ * which shares every other tag with the original.</p>
+ *
+ * <p>{@link #copy() Copies} of a compound share the tags within it,
+ * copying each of them only once it is {@link #get(String) accessed}
+ * through either compound, while {@link #peek(String)} reads them
+ * without copying. Both compounds remain modifiable, independently of one
+ * another.</p>
+ *
+ * <p>Compounds are equal to one another should they hold equal tags under
+ * the same names, regardless of order. The hash of a frozen compound is
+ * computed only once, and compared before any tags, so that unequal
+ * frozen compounds are told apart cheaply.</p>
+ *
  * @author Jamie Mansfield
  * @since 0.1.0
  */
 public class CompoundTag implements Tag {
 
-    private final Map<String, Tag> tags = new HashMap<>();
+    /**
+     * The number of tags beyond which a compound is promoted from its
+     * compact representation to a hash map.
+     */
+    private static final int COMPACT_LIMIT = 8;
+    private static final int DEFAULT_CAPACITY = 4;
+
+    // While compact, the tags are stored in these arrays
+    private String[] names;
+    private Tag[] values;
+    private int size;
+
+    // Once promoted, the tags are stored in this map
+    private Map<String, Tag> tags;
+
+    private boolean frozen;
+
+    // The tags this compound shares with its copies, or with the compound
+    // it was copied from, so are copied before being handed out for
+    // modification
+    private Tag[] inherited;
+    private Set<Tag> inheritedTags;
+
+    // The hash of a frozen compound, once computed
+    private int hash;
 
     /**
      * Gets the tag, should it exist, from the compound.
@@ -63,7 +119,34 @@ public class CompoundTag implements Tag {
      * @return The tag, or {@code null} if it doesn't exist
      */
     public Tag get(final String name) {
-        return this.tags.get(name);
+        final Tag tag = this.lookup(name);
+        if (tag instanceof LazyTag) {
+            final Tag decoded = ((LazyTag) tag).decode();
+            this.store(name, decoded);
+            return decoded;
+        }
+        if (tag != null && !this.frozen && (this.inherits(tag) || isFrozen(tag))) {
+            // The tag may be modified once handed out, so must be ours alone
+            final Tag copy = tag.copy();
+            this.store(name, copy);
+            return copy;
+        }
+        return tag;
+    }
+
+    /**
+     * Gets the tag, should it exist, from the compound, for reading only.
+     *
+     * <p>Unlike {@link #get(String)}, tags shared with another compound,
+     * such as those of a {@link #copy() copy}, are not copied - so the tag
+     * must not be modified.</p>
+     *
+     * @param name The tag name
+     * @return The tag, or {@code null} if it doesn't exist
+     */
+    public Tag peek(final String name) {
+        final Tag tag = this.lookup(name);
+        return tag instanceof LazyTag ? this.get(name) : tag;
     }
 
     /**
@@ -73,7 +156,190 @@ public Tag get(final String name) {
      * @param tag The tag
      */
     public void put(final String name, final Tag tag) {
-        this.tags.put(name, tag);
+        this.checkMutable();
+        this.store(name, tag);
+    }
+
+    /**
+     * Removes the tag, should it exist, from the compound.
+     *
+     * @param name The tag name
+     */
+    public void remove(final String name) {
+        this.checkMutable();
+        this.delete(name);
+    }
+
+    /**
+     * Creates a frozen compound, holding the tags of this compound, with
+     * the given {@link Tag tag} added, or replacing the tag of the same
+     * name.
+     *
+     * <p>Only the compound itself is copied, with every other tag shared
+     * between the two compounds. The given tag will be frozen, should it
+     * not already be.</p>
+     *
+     * @param name The tag name
+     * @param tag The tag
+     * @return The new compound
+     * @throws IllegalStateException If this compound isn't frozen
+     */
+    public CompoundTag with(final String name, final Tag tag) {
+        if (!this.frozen) {
+            throw new IllegalStateException("Only frozen compounds can be updated using with!");
+        }
+
+        final CompoundTag compound = this.shallowCopy();
+        compound.store(name, tag.freeze());
+        compound.frozen = true;
+        return compound;
+    }
+
+    /**
+     * Creates a frozen compound, holding the tags of this compound, less
+     * the tag of the given name.
+     *
+     * <p>Only the compound itself is copied, with every other tag shared
+     * between the two compounds.</p>
+     *
+     * @param name The tag name
+     * @return The new compound
+     * @throws IllegalStateException If this compound isn't frozen
+     */
+    public CompoundTag without(final String name) {
+        if (!this.frozen) {
+            throw new IllegalStateException("Only frozen compounds can be updated using without!");
+        }
+
+        final CompoundTag compound = this.shallowCopy();
+        compound.delete(name);
+        compound.frozen = true;
+        return compound;
+    }
+
+    /**
+     * Creates a copy of the compound, which may be modified independently
+     * of this compound.
+     *
+     * <p>Only the compound itself is copied, with the tags within it
+     * shared until they are {@link #get(String) accessed} through either
+     * compound - at which point that compound is given its own copy of the
+     * tag, leaving the other's untouched. Copies of a frozen compound are
+     * not frozen.</p>
+     *
+     * <p>Tags obtained from this compound before copying are shared by
+     * both compounds, so should be obtained again once copied.</p>
+     *
+     * @return The copy
+     */
+    @Override
+    public CompoundTag copy() {
+        final CompoundTag compound = this.shallowCopy();
+        if (compound.tags != null) {
+            final Set<Tag> inherited = Collections.newSetFromMap(new IdentityHashMap<>(compound.tags.size()));
+            inherited.addAll(compound.tags.values());
+            compound.inheritedTags = inherited;
+        } else if (compound.size != 0) {
+            compound.inherited = Arrays.copyOf(compound.values, compound.size);
+        }
+
+        // Every tag is now shared by both compounds, so this compound must
+        // also copy them before handing them out - any it still shared from
+        // an earlier copy are held in the new snapshot too. A frozen
+        // compound holds only frozen tags, which are copied regardless.
+        if (!this.frozen) {
+            this.inherited = compound.inherited;
+            this.inheritedTags = compound.inheritedTags;
+        }
+        return compound;
+    }
+
+    private CompoundTag shallowCopy() {
+        final CompoundTag compound = new CompoundTag();
+        if (this.tags != null) {
+            compound.tags = new HashMap<>(this.tags);
+        } else if (this.names != null) {
+            compound.names = this.names.clone();
+            compound.values = this.values.clone();
+            compound.size = this.size;
+        }
+        return compound;
+    }
+
+    /**
+     * Establishes whether the given tag is one this compound shares with
+     * a {@link #copy() copy}, or with the compound it was copied from.
+     *
+     * @param tag The tag
+     * @return {@code true} if the tag is inherited; {@code false} otherwise
+     */
+    private boolean inherits(final Tag tag) {
+        if (this.inheritedTags != null) {
+            return this.inheritedTags.contains(tag);
+        }
+        if (this.inherited != null) {
+            for (final Tag inherited : this.inherited) {
+                if (inherited == tag) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Establishes whether the given tag is a frozen compound or list, and
+     * so must be copied before being handed out for modification.
+     *
+     * @param tag The tag
+     * @return {@code true} if the tag is frozen; {@code false} otherwise
+     */
+    static boolean isFrozen(final Tag tag) {
+        if (tag instanceof CompoundTag) {
+            return ((CompoundTag) tag).isFrozen();
+        }
+        return tag instanceof ListTag && ((ListTag) tag).isFrozen();
+    }
+
+    /**
+     * Freezes the compound, and every tag within it, preventing any further
+     * modification. Lazily read tags are decoded, so that the compound is
+     * no longer modified even by reads.
+     *
+     * @return This compound
+     */
+    @Override
+    public CompoundTag freeze() {
+        if (this.frozen) {
+            return this;
+        }
+
+        if (this.tags != null) {
+            for (final Map.Entry<String, Tag> tag : this.tags.entrySet()) {
+                tag.setValue(tag.getValue().freeze());
+            }
+        } else {
+            for (int i = 0; i < this.size; i++) {
+                this.values[i] = this.values[i].freeze();
+            }
+        }
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Establishes whether the compound has been {@link #freeze() frozen}.
+     *
+     * @return {@code true} if the compound is frozen; {@code false} otherwise
+     */
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen compounds can't be modified!");
+        }
     }
 
     /**
@@ -85,7 +351,8 @@ public void put(final String name, final Tag tag) {
      * @return {@code true} if the tag exists; {@code false} otherwise
      */
     public boolean contains(final String name, final byte type) {
-        final Tag tag = this.get(name);
+        // Lazy tags know their type, so there's no need to decode them
+        final Tag tag = this.lookup(name);
         return tag != null && tag.getId() == type;
     }
 
@@ -99,7 +366,7 @@ public byte getByte(final String name) {
         if (!this.contains(name, TAG_BYTE)) {
             return (byte) 0;
         }
-        return ((ByteTag) this.get(name)).getValue();
+        return ((ByteTag) this.peek(name)).getValue();
     }
 
     /**
@@ -122,7 +389,7 @@ public short getShort(final String name) {
         if (!this.contains(name, TAG_SHORT)) {
             return (short) 0;
         }
-        return ((ShortTag) this.get(name)).getValue();
+        return ((ShortTag) this.peek(name)).getValue();
     }
 
     /**
@@ -145,7 +412,7 @@ public int getInt(final String name) {
         if (!this.contains(name, TAG_INT)) {
             return 0;
         }
-        return ((IntTag) this.get(name)).getValue();
+        return ((IntTag) this.peek(name)).getValue();
     }
 
     /**
@@ -168,7 +435,7 @@ public long getLong(final String name) {
         if (!this.contains(name, TAG_LONG)) {
             return 0;
         }
-        return ((LongTag) this.get(name)).getValue();
+        return ((LongTag) this.peek(name)).getValue();
     }
 
     /**
@@ -191,7 +458,7 @@ public float getFloat(final String name) {
         if (!this.contains(name, TAG_FLOAT)) {
             return 0;
         }
-        return ((FloatTag) this.get(name)).getValue();
+        return ((FloatTag) this.peek(name)).getValue();
     }
 
     /**
@@ -214,7 +481,7 @@ public double getDouble(final String name) {
         if (!this.contains(name, TAG_DOUBLE)) {
             return 0;
         }
-        return ((DoubleTag) this.get(name)).getValue();
+        return ((DoubleTag) this.peek(name)).getValue();
     }
 
     /**
@@ -260,7 +527,7 @@ public String getString(final String name) {
         if (!this.contains(name, TAG_STRING)) {
             return "";
         }
-        return ((StringTag) this.get(name)).getValue();
+        return ((StringTag) this.peek(name)).getValue();
     }
 
     /**
@@ -342,30 +609,290 @@ public void putLongArray(final String name, final long[] value) {
         this.put(name, new LongArrayTag(value));
     }
 
+    /**
+     * Reads the name of a tag within a compound, pooling it should the
+     * input support doing so.
+     *
+     * @param input The input
+     * @return The name
+     * @throws IOException Should an IO error occur
+     * @see NbtInput#readKey()
+     */
+    static String readName(final DataInput input) throws IOException {
+        return input instanceof NbtInput ? ((NbtInput) input).readKey() : input.readUTF();
+    }
+
+    /**
+     * Gets the canonical instance of a tag just read from the given input,
+     * should the input support doing so.
+     *
+     * @param input The input
+     * @param tag The tag
+     * @return The canonical tag
+     * @see NbtInput#canonicalize(Tag)
+     */
+    static Tag canonicalize(final DataInput input, final Tag tag) {
+        return input instanceof NbtInput ? ((NbtInput) input).canonicalize(tag) : tag;
+    }
+
     @Override
     public void read(final DataInput input) throws IOException {
+        this.checkMutable();
         byte type;
         while ((type = input.readByte()) != TAG_END) {
-            final String name = input.readUTF();
+            final String name = readName(input);
             final Tag tag = create(type);
             tag.read(input);
+            this.store(name, canonicalize(input, tag));
+        }
+    }
+
+    private int indexOf(final String name) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the tag stored under the given name, as it is stored - without
+     * decoding lazy tags.
+     *
+     * @param name The tag name
+     * @return The tag, or {@code null} if it doesn't exist
+     */
+    Tag lookup(final String name) {
+        if (this.tags != null) {
+            return this.tags.get(name);
+        }
+        final int index = this.indexOf(name);
+        return index < 0 ? null : this.values[index];
+    }
+
+    /**
+     * Gets the names of the tags within the compound, which must not be
+     * modified while they are in use.
+     *
+     * @return The names
+     */
+    Collection<String> keys() {
+        if (this.tags != null) {
+            return this.tags.keySet();
+        }
+        return this.names == null ? Collections.<String>emptyList() : Arrays.asList(this.names).subList(0, this.size);
+    }
+
+    private void delete(final String name) {
+        if (this.tags != null) {
+            this.tags.remove(name);
+            return;
+        }
+
+        final int index = this.indexOf(name);
+        if (index >= 0) {
+            this.size--;
+            System.arraycopy(this.names, index + 1, this.names, index, this.size - index);
+            System.arraycopy(this.values, index + 1, this.values, index, this.size - index);
+            this.names[this.size] = null;
+            this.values[this.size] = null;
+        }
+    }
+
+    /**
+     * Stores the tag under the given name, promoting the compound to a
+     * hash map should it outgrow its compact representation.
+     *
+     * @param name The tag name
+     * @param tag The tag
+     */
+    private void store(final String name, final Tag tag) {
+        Objects.requireNonNull(name, "name");
+        if (this.tags != null) {
             this.tags.put(name, tag);
+            return;
+        }
+
+        final int index = this.indexOf(name);
+        if (index >= 0) {
+            this.values[index] = tag;
+            return;
+        }
+
+        if (this.size == COMPACT_LIMIT) {
+            this.tags = new HashMap<>();
+            for (int i = 0; i < this.size; i++) {
+                this.tags.put(this.names[i], this.values[i]);
+            }
+            this.tags.put(name, tag);
+            this.names = null;
+            this.values = null;
+            this.size = 0;
+            return;
+        }
+
+        if (this.names == null) {
+            this.names = new String[DEFAULT_CAPACITY];
+            this.values = new Tag[DEFAULT_CAPACITY];
+        } else if (this.size == this.names.length) {
+            this.names = Arrays.copyOf(this.names, Math.min(this.size * 2, COMPACT_LIMIT));
+            this.values = Arrays.copyOf(this.values, this.names.length);
+        }
+        this.names[this.size] = name;
+        this.values[this.size] = tag;
+        this.size++;
+    }
+
+    /**
+     * Stores every tag of the given compound in this compound, as they are
+     * stored - without decoding lazy tags.
+     *
+     * @param compound The compound
+     */
+    void putAll(final CompoundTag compound) {
+        if (compound.tags != null) {
+            for (final Map.Entry<String, Tag> tag : compound.tags.entrySet()) {
+                this.store(tag.getKey(), tag.getValue());
+            }
+        } else {
+            for (int i = 0; i < compound.size; i++) {
+                this.store(compound.names[i], compound.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads the compound lazily from the given input, deferring the
+     * decoding of its larger children until they are accessed.
+     *
+     * @param input The input
+     * @throws IOException Should an IO error occur
+     */
+    void readLazy(final ByteBufferInput input) throws IOException {
+        byte type;
+        while ((type = input.readByte()) != TAG_END) {
+            final String name = input.readKey();
+            if (LazyTag.isDeferred(type)) {
+                final int start = input.position();
+                NbtReader.skip(input, type);
+                this.store(name, new LazyTag(type, input.slice(start, input.position())));
+            } else {
+                final Tag tag = create(type);
+                tag.read(input);
+                this.store(name, tag);
+            }
         }
     }
 
     @Override
     public void write(final DataOutput output) throws IOException {
-        for (final Map.Entry<String, Tag> tag : this.tags.entrySet()) {
-            final byte type = tag.getValue().getId();
-            output.writeByte(type);
-            if (type != TAG_END) {
-                output.writeUTF(tag.getKey());
-                tag.getValue().write(output);
+        if (this.tags != null) {
+            for (final Map.Entry<String, Tag> tag : this.tags.entrySet()) {
+                writeEntry(output, tag.getKey(), tag.getValue());
+            }
+        } else {
+            for (int i = 0; i < this.size; i++) {
+                writeEntry(output, this.names[i], this.values[i]);
             }
         }
         output.writeByte(TAG_END);
     }
 
+    private static void writeEntry(final DataOutput output, final String name, final Tag tag) throws IOException {
+        final byte type = tag.getId();
+        output.writeByte(type);
+        if (type != TAG_END) {
+            output.writeUTF(name);
+            tag.write(output);
+        }
+    }
+
+    /**
+     * Gets the compound holding the tags of this compound, for comparing
+     * them.
+     *
+     * @return The compound
+     */
+    CompoundTag view() {
+        return this;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CompoundTag)) {
+            return false;
+        }
+        final CompoundTag self = this.view();
+        final CompoundTag that = ((CompoundTag) obj).view();
+        if (self == that) {
+            return true;
+        }
+
+        final Collection<String> keys = self.keys();
+        if (keys.size() != that.keys().size()) {
+            return false;
+        }
+        if (self.hash != 0 && that.hash != 0 && self.hash != that.hash) {
+            return false;
+        }
+        for (final String name : keys) {
+            final Tag value = self.lookup(name);
+            final Tag other = that.lookup(name);
+            if (other == null) {
+                return false;
+            }
+            if (value != other && !LazyTag.resolve(value).equals(LazyTag.resolve(other))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.hash;
+        if (hash == 0) {
+            for (final String name : this.keys()) {
+                hash += name.hashCode() ^ LazyTag.resolve(this.lookup(name)).hashCode();
+            }
+            if (this.frozen) {
+                this.hash = hash;
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public int serializedSize() {
+        int size = 1;
+        for (final String name : this.keys()) {
+            size += 3 + ModifiedUtf8.encodedLength(name) + this.lookup(name).serializedSize();
+        }
+        return size;
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        long size = HeapSize.object(HeapSize.REFERENCE * 5 + 4 + 1 + 4);
+        if (this.tags != null) {
+            // The map, its table, and a node for each entry
+            size += HeapSize.object(HeapSize.REFERENCE * 4 + 4 * 4);
+            size += HeapSize.array(Integer.highestOneBit(Math.max(1, (int) (this.tags.size() / 0.75f)) * 2 - 1),
+                    HeapSize.REFERENCE);
+            size += this.tags.size() * HeapSize.object(4 + HeapSize.REFERENCE * 3);
+        } else if (this.names != null) {
+            size += 2 * HeapSize.array(this.names.length, HeapSize.REFERENCE);
+        }
+        for (final String name : this.keys()) {
+            size += HeapSize.string(name) + this.lookup(name).estimatedHeapSize();
+        }
+        return size;
+    }
+
     @Override
     public byte getId() {
         return TAG_COMPOUND;
@@ -0,0 +1,215 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link CompoundTag compound tag} that may be read and modified by
+ * many threads at once, without any external locking.
+ *
+ * <p>The tags are held as a {@link CompoundTag#freeze() frozen} compound,
+ * which is replaced by each modification. Reads never block, and
+ * modifications are made by compare-and-swap - retrying should another
+ * thread have modified the compound in the meantime. As such, the
+ * compound is best suited to the modest numbers of tags found in
+ * entities and the like, as each modification copies the compound's own
+ * entries, though never the tags within it.</p>
+ *
+ * <p>A consistent {@link #snapshot() snapshot} of the compound may be
+ * taken at any time, and is what is {@link #write(DataOutput) written},
+ * so a compound may be saved while other threads continue to modify
+ * it.</p>
+ *
+ * <p>Tags added to the compound are frozen, so tags within it must be
+ * modified by adding a replacement, for example using
+ * {@link CompoundTag#with(String, Tag)}. Both {@link #with(String, Tag)}
+ * and {@link #without(String)} may also be used on the concurrent
+ * compound itself, creating a frozen compound from its current
+ * snapshot.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class ConcurrentCompoundTag extends CompoundTag {
+
+    private final AtomicReference<CompoundTag> snapshot;
+
+    public ConcurrentCompoundTag() {
+        this(new CompoundTag().freeze());
+    }
+
+    private ConcurrentCompoundTag(final CompoundTag snapshot) {
+        this.snapshot = new AtomicReference<>(snapshot);
+    }
+
+    /**
+     * Gets a consistent snapshot of the compound, which is not affected
+     * by later modifications.
+     *
+     * @return The snapshot, which is frozen
+     */
+    public CompoundTag snapshot() {
+        return this.snapshot.get();
+    }
+
+    @Override
+    public Tag get(final String name) {
+        return this.snapshot.get().get(name);
+    }
+
+    /**
+     * Adds a child {@link Tag tag} to the compound, freezing it should it
+     * not already be.
+     *
+     * @param name The tag name
+     * @param tag The tag
+     */
+    @Override
+    public void put(final String name, final Tag tag) {
+        final Tag frozen = tag.freeze();
+        CompoundTag current;
+        do {
+            current = this.snapshot.get();
+        } while (!this.snapshot.compareAndSet(current, current.with(name, frozen)));
+    }
+
+    /**
+     * Removes the tag, should it exist, from the compound.
+     *
+     * @param name The tag name
+     */
+    @Override
+    public void remove(final String name) {
+        CompoundTag current;
+        do {
+            current = this.snapshot.get();
+        } while (!this.snapshot.compareAndSet(current, current.without(name)));
+    }
+
+    @Override
+    public boolean contains(final String name, final byte type) {
+        return this.snapshot.get().contains(name, type);
+    }
+
+    @Override
+    public CompoundTag with(final String name, final Tag tag) {
+        return this.snapshot.get().with(name, tag);
+    }
+
+    @Override
+    public CompoundTag without(final String name) {
+        return this.snapshot.get().without(name);
+    }
+
+    /**
+     * Gets a {@link #snapshot() snapshot} of the compound, as a concurrent
+     * compound can't itself be frozen.
+     *
+     * @return The snapshot
+     */
+    @Override
+    public CompoundTag freeze() {
+        return this.snapshot.get();
+    }
+
+    /**
+     * Creates a copy of the compound, sharing its current
+     * {@link #snapshot() snapshot}.
+     *
+     * @return The copy
+     */
+    @Override
+    public ConcurrentCompoundTag copy() {
+        return new ConcurrentCompoundTag(this.snapshot.get());
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return false;
+    }
+
+    @Override
+    Tag lookup(final String name) {
+        return this.snapshot.get().lookup(name);
+    }
+
+    @Override
+    Collection<String> keys() {
+        return this.snapshot.get().keys();
+    }
+
+    @Override
+    CompoundTag view() {
+        return this.snapshot.get();
+    }
+
+    @Override
+    public int hashCode() {
+        return this.snapshot.get().hashCode();
+    }
+
+    @Override
+    public int serializedSize() {
+        return this.snapshot.get().serializedSize();
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        // The fields of the compound, and the reference holding its snapshot
+        final long fields = HeapSize.object(HeapSize.REFERENCE * 6 + 4 + 1 + 4) + HeapSize.object(HeapSize.REFERENCE);
+        return fields + this.snapshot.get().estimatedHeapSize();
+    }
+
+    @Override
+    public void read(final DataInput input) throws IOException {
+        // The input can only be read once, so must be read before attempting
+        // to swap in the result
+        final CompoundTag read = new CompoundTag();
+        read.read(input);
+        read.freeze();
+
+        CompoundTag current;
+        CompoundTag next;
+        do {
+            current = this.snapshot.get();
+            next = new CompoundTag();
+            next.putAll(current);
+            next.putAll(read);
+            next.freeze();
+        } while (!this.snapshot.compareAndSet(current, next));
+    }
+
+    @Override
+    public void write(final DataOutput output) throws IOException {
+        this.snapshot.get().write(output);
+    }
+
+}
@@ -0,0 +1,413 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * GZIP and zlib {@link NbtCompression compression}, at a configurable
+ * level.
+ *
+ * <p>Rather than the streams of {@link java.util.zip}, which create new
+ * zlib state and buffers for every stream, the streams used take them
+ * from the {@link IoCache}, returning them once closed.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+final class DeflateCompression implements NbtCompression {
+
+    private static final int GZIP_MAGIC = 0x8B1F;
+
+    /**
+     * The GZIP header, with no flags, modification time or extra flags,
+     * and an unknown operating system.
+     */
+    private static final byte[] GZIP_HEADER = {
+            (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xFF
+    };
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final boolean gzip;
+    private final int level;
+
+    DeflateCompression(final boolean gzip, final int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid compression level " + level + "!");
+        }
+        this.gzip = gzip;
+        this.level = level;
+    }
+
+    @Override
+    public InputStream decompress(final InputStream in) throws IOException {
+        return new InflatingInputStream(in, this.gzip);
+    }
+
+    @Override
+    public OutputStream compress(final OutputStream out) throws IOException {
+        return new DeflatingOutputStream(out, this.gzip, this.level);
+    }
+
+    /**
+     * An {@link InputStream} inflating zlib, or GZIP, data.
+     */
+    private static final class InflatingInputStream extends InputStream {
+
+        private final InputStream in;
+        private final boolean gzip;
+        private final CRC32 crc;
+        private Inflater inflater;
+        private byte[] buffer;
+        private int position;
+        private int limit;
+        private boolean finished;
+
+        InflatingInputStream(final InputStream in, final boolean gzip) throws IOException {
+            this.in = in;
+            this.gzip = gzip;
+            this.crc = gzip ? new CRC32() : null;
+            this.inflater = IoCache.inflater(gzip);
+            this.buffer = IoCache.buffer();
+
+            if (gzip) {
+                try {
+                    this.readHeader();
+                } catch (final IOException | RuntimeException ex) {
+                    this.release();
+                    throw ex;
+                }
+            }
+        }
+
+        private void fill() throws IOException {
+            this.position = 0;
+            this.limit = 0;
+            while (this.limit == 0) {
+                final int read = this.in.read(this.buffer, 0, this.buffer.length);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of compressed stream");
+                }
+                this.limit = read;
+            }
+        }
+
+        private int readUnsignedByte() throws IOException {
+            if (this.position == this.limit) {
+                this.fill();
+            }
+            return this.buffer[this.position++] & 0xFF;
+        }
+
+        private int readUnsignedShort() throws IOException {
+            return this.readUnsignedByte() | (this.readUnsignedByte() << 8);
+        }
+
+        private long readUnsignedInt() throws IOException {
+            return (long) this.readUnsignedShort() | ((long) this.readUnsignedShort() << 16);
+        }
+
+        private void readHeader() throws IOException {
+            if (this.readUnsignedShort() != GZIP_MAGIC) {
+                throw new ZipException("Not in GZIP format");
+            }
+            this.readHeaderFields();
+        }
+
+        private void readHeaderFields() throws IOException {
+            if (this.readUnsignedByte() != Deflater.DEFLATED) {
+                throw new ZipException("Unsupported compression method");
+            }
+            final int flags = this.readUnsignedByte();
+
+            // Modification time, extra flags and operating system
+            for (int i = 0; i < 6; i++) {
+                this.readUnsignedByte();
+            }
+
+            if ((flags & FEXTRA) != 0) {
+                for (int i = this.readUnsignedShort(); i > 0; i--) {
+                    this.readUnsignedByte();
+                }
+            }
+            if ((flags & FNAME) != 0) {
+                while (this.readUnsignedByte() != 0) {
+                }
+            }
+            if ((flags & FCOMMENT) != 0) {
+                while (this.readUnsignedByte() != 0) {
+                }
+            }
+            if ((flags & FHCRC) != 0) {
+                this.readUnsignedShort();
+            }
+        }
+
+        private void readTrailer() throws IOException {
+            if (this.readUnsignedInt() != this.crc.getValue()) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+            if (this.readUnsignedInt() != (this.inflater.getBytesWritten() & 0xFFFFFFFFL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+        }
+
+        /**
+         * Reads the header of the next member of a multi-member GZIP
+         * stream, as produced by concatenating GZIP files, should there
+         * be one.
+         *
+         * <p>As with {@link java.util.zip.GZIPInputStream}, members are
+         * only looked for in data that is already available, and anything
+         * following the trailer that isn't a member is ignored.</p>
+         *
+         * @return {@code true} if another member follows; {@code false} otherwise
+         * @throws IOException Should an IO error occur
+         */
+        private boolean readNextMember() throws IOException {
+            if (this.position == this.limit) {
+                if (this.in.available() <= 0) {
+                    return false;
+                }
+                final int read = this.in.read(this.buffer, 0, this.buffer.length);
+                if (read <= 0) {
+                    return false;
+                }
+                this.position = 0;
+                this.limit = read;
+            }
+
+            try {
+                if (this.readUnsignedShort() != GZIP_MAGIC) {
+                    return false;
+                }
+            } catch (final EOFException ex) {
+                return false;
+            }
+            this.readHeaderFields();
+            this.inflater.reset();
+            this.crc.reset();
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return this.read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (this.inflater == null) {
+                throw new IOException("Stream closed");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            if (this.finished) {
+                return -1;
+            }
+
+            while (true) {
+                final int n;
+                try {
+                    n = this.inflater.inflate(b, off, len);
+                } catch (final DataFormatException ex) {
+                    throw new ZipException(ex.getMessage() != null ? ex.getMessage() : "Invalid deflate data");
+                }
+                if (n > 0 && this.gzip) {
+                    this.crc.update(b, off, n);
+                }
+
+                if (this.inflater.finished()) {
+                    // Anything the inflater didn't consume follows the deflate data,
+                    // and the trailer is checked now as the reader may stop here
+                    this.position = this.limit - this.inflater.getRemaining();
+                    if (this.gzip) {
+                        this.readTrailer();
+                        if (this.readNextMember()) {
+                            if (n > 0) {
+                                return n;
+                            }
+                            continue;
+                        }
+                    }
+                    this.finished = true;
+                    return n > 0 ? n : -1;
+                }
+                if (n > 0) {
+                    return n;
+                }
+                if (this.inflater.needsDictionary()) {
+                    throw new ZipException("Deflate dictionaries are not supported");
+                }
+                if (this.inflater.needsInput()) {
+                    if (this.position == this.limit) {
+                        this.fill();
+                    }
+                    this.inflater.setInput(this.buffer, this.position, this.limit - this.position);
+                    this.position = this.limit;
+                }
+            }
+        }
+
+        private void release() {
+            if (this.inflater != null) {
+                IoCache.release(this.inflater, this.gzip);
+                IoCache.release(this.buffer);
+                this.inflater = null;
+                this.buffer = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.release();
+            } finally {
+                this.in.close();
+            }
+        }
+
+    }
+
+    /**
+     * An {@link OutputStream} deflating into zlib, or GZIP, data.
+     */
+    private static final class DeflatingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final boolean gzip;
+        private final CRC32 crc;
+        private Deflater deflater;
+        private byte[] buffer;
+
+        DeflatingOutputStream(final OutputStream out, final boolean gzip, final int level) throws IOException {
+            this.out = out;
+            this.gzip = gzip;
+            this.crc = gzip ? new CRC32() : null;
+            this.deflater = IoCache.deflater(level, gzip);
+            this.buffer = IoCache.buffer();
+
+            if (gzip) {
+                try {
+                    out.write(GZIP_HEADER);
+                } catch (final IOException | RuntimeException ex) {
+                    this.release();
+                    throw ex;
+                }
+            }
+        }
+
+        private void deflate() throws IOException {
+            final int n = this.deflater.deflate(this.buffer, 0, this.buffer.length);
+            if (n > 0) {
+                this.out.write(this.buffer, 0, n);
+            }
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (this.deflater == null) {
+                throw new IOException("Stream closed");
+            }
+            if (len == 0) {
+                return;
+            }
+
+            this.deflater.setInput(b, off, len);
+            while (!this.deflater.needsInput()) {
+                this.deflate();
+            }
+            if (this.gzip) {
+                this.crc.update(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.out.flush();
+        }
+
+        private void writeInt(final int value) throws IOException {
+            this.out.write(new byte[] {
+                    (byte) value, (byte) (value >>> 8), (byte) (value >>> 16), (byte) (value >>> 24)
+            });
+        }
+
+        private void release() {
+            if (this.deflater != null) {
+                IoCache.release(this.deflater, this.gzip);
+                IoCache.release(this.buffer);
+                this.deflater = null;
+                this.buffer = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.deflater == null) {
+                return;
+            }
+
+            try {
+                this.deflater.finish();
+                while (!this.deflater.finished()) {
+                    this.deflate();
+                }
+                if (this.gzip) {
+                    this.writeInt((int) this.crc.getValue());
+                    this.writeInt((int) this.deflater.getBytesRead());
+                }
+            } finally {
+                try {
+                    this.release();
+                } finally {
+                    this.out.close();
+                }
+            }
+        }
+
+    }
+
+}
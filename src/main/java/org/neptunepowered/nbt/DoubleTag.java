@@ -40,6 +40,7 @@
 public class DoubleTag implements Tag {
 
     private double value;
+    private boolean frozen;
 
     public DoubleTag() {
     }
@@ -57,8 +58,34 @@ public double getValue() {
         return this.value;
     }
 
+    /**
+     * Freezes the tag, such that it can no longer be
+     * {@link #read(DataInput) read} into.
+     *
+     * @return This tag
+     */
+    @Override
+    public DoubleTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Creates a copy of the tag, unless it is frozen, in which case it is
+     * returned as is.
+     *
+     * @return The copy, which may be this tag
+     */
+    @Override
+    public DoubleTag copy() {
+        return this.frozen ? this : new DoubleTag(this.value);
+    }
+
     @Override
     public void read(final DataInput input) throws IOException {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen tags can't be modified!");
+        }
         this.value = input.readDouble();
     }
 
@@ -67,6 +94,33 @@ public void write(final DataOutput output) throws IOException {
         output.writeDouble(this.value);
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DoubleTag)) {
+            return false;
+        }
+        final DoubleTag that = (DoubleTag) obj;
+        return Double.doubleToLongBits(this.value) == Double.doubleToLongBits(that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(this.value);
+    }
+
+    @Override
+    public int serializedSize() {
+        return 8;
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        return HeapSize.object(8 + 1);
+    }
+
     @Override
     public byte getId() {
         return TAG_DOUBLE;
@@ -47,6 +47,26 @@ public void read(final DataInput input) {
     public void write(final DataOutput output) {
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof EndTag;
+    }
+
+    @Override
+    public int hashCode() {
+        return 0;
+    }
+
+    @Override
+    public int serializedSize() {
+        return 0;
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        return HeapSize.object(0);
+    }
+
     @Override
     public byte getId() {
         return TAG_END;
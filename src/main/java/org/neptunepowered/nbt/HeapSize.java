@@ -0,0 +1,105 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+/**
+ * Approximations of the heap occupied by objects, for estimating the
+ * {@link Tag#estimatedHeapSize() heap size} of tags.
+ *
+ * <p>The layout assumed is that of a 64-bit HotSpot JVM with compressed
+ * references: a 12 byte object header, a 16 byte array header, 4 byte
+ * references, and objects aligned to 8 bytes.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+final class HeapSize {
+
+    static final int REFERENCE = 4;
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+
+    /**
+     * Whether strings of only Latin-1 characters are held as one byte per
+     * character, as they are from Java 9.
+     */
+    private static final boolean COMPACT_STRINGS = !System.getProperty("java.specification.version", "").startsWith("1.");
+
+    /**
+     * Gets the size of an object with the given size of fields.
+     *
+     * @param fields The combined size of the fields, in bytes
+     * @return The size, in bytes
+     */
+    static long object(final int fields) {
+        return align(OBJECT_HEADER + fields);
+    }
+
+    /**
+     * Gets the size of an array.
+     *
+     * @param length The length of the array
+     * @param element The size of each element, in bytes
+     * @return The size, in bytes
+     */
+    static long array(final int length, final int element) {
+        return align(ARRAY_HEADER + (long) length * element);
+    }
+
+    /**
+     * Gets the size of a string, including the array holding its
+     * characters.
+     *
+     * @param value The string, or {@code null}
+     * @return The size, in bytes
+     */
+    static long string(final String value) {
+        if (value == null) {
+            return 0;
+        }
+        // The value array, cached hash and, from Java 9, the coder
+        final long string = object(REFERENCE + 4 + (COMPACT_STRINGS ? 2 : 0));
+        return string + array(value.length(), COMPACT_STRINGS && isLatin1(value) ? 1 : 2);
+    }
+
+    private static boolean isLatin1(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long align(final long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private HeapSize() {
+    }
+
+}
@@ -40,6 +40,7 @@
 public class IntTag implements Tag {
 
     private int value;
+    private boolean frozen;
 
     public IntTag() {
     }
@@ -57,8 +58,34 @@ public int getValue() {
         return this.value;
     }
 
+    /**
+     * Freezes the tag, such that it can no longer be
+     * {@link #read(DataInput) read} into.
+     *
+     * @return This tag
+     */
+    @Override
+    public IntTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Creates a copy of the tag, unless it is frozen, in which case it is
+     * returned as is.
+     *
+     * @return The copy, which may be this tag
+     */
+    @Override
+    public IntTag copy() {
+        return this.frozen ? this : new IntTag(this.value);
+    }
+
     @Override
     public void read(final DataInput input) throws IOException {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen tags can't be modified!");
+        }
         this.value = input.readInt();
     }
 
@@ -67,6 +94,33 @@ public void write(final DataOutput output) throws IOException {
         output.writeInt(this.value);
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IntTag)) {
+            return false;
+        }
+        final IntTag that = (IntTag) obj;
+        return this.value == that.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(this.value);
+    }
+
+    @Override
+    public int serializedSize() {
+        return 4;
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        return HeapSize.object(4 + 1);
+    }
+
     @Override
     public byte getId() {
         return TAG_INT;
@@ -0,0 +1,169 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A per-thread cache of {@link Inflater inflaters}, {@link Deflater deflaters}
+ * and IO buffers, so that reads and writes needn't allocate native zlib
+ * state, and leave it for finalisation, or large buffers every time.
+ *
+ * <p>Each thread holds on to at most one inflater and deflater of either
+ * kind, and a couple of buffers. Anything taken from the cache is owned
+ * by the taker until it is released, so should a thread use several at
+ * once, those beyond what is cached are created anew, and ended when
+ * released.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+final class IoCache {
+
+    /**
+     * The size of the cached buffers.
+     */
+    static final int BUFFER_SIZE = 32 * 1024;
+
+    private static final ThreadLocal<IoCache> CACHE = ThreadLocal.withInitial(IoCache::new);
+
+    /**
+     * Takes an inflater from the cache, or creates one should none be cached.
+     *
+     * @param nowrap Whether the inflater reads raw deflate data, rather than zlib
+     * @return The inflater
+     */
+    static Inflater inflater(final boolean nowrap) {
+        final IoCache cache = CACHE.get();
+        final int i = nowrap ? 1 : 0;
+        final Inflater inflater = cache.inflaters[i];
+        if (inflater == null) {
+            return new Inflater(nowrap);
+        }
+        cache.inflaters[i] = null;
+        return inflater;
+    }
+
+    /**
+     * Releases an inflater taken from the cache.
+     *
+     * @param inflater The inflater
+     * @param nowrap Whether the inflater reads raw deflate data
+     */
+    static void release(final Inflater inflater, final boolean nowrap) {
+        final IoCache cache = CACHE.get();
+        final int i = nowrap ? 1 : 0;
+        if (cache.inflaters[i] == null) {
+            inflater.reset();
+            cache.inflaters[i] = inflater;
+        } else {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Takes a deflater from the cache, or creates one should none be cached.
+     *
+     * @param level The compression level
+     * @param nowrap Whether the deflater writes raw deflate data, rather than zlib
+     * @return The deflater
+     */
+    static Deflater deflater(final int level, final boolean nowrap) {
+        final IoCache cache = CACHE.get();
+        final int i = nowrap ? 1 : 0;
+        final Deflater deflater = cache.deflaters[i];
+        if (deflater == null) {
+            return new Deflater(level, nowrap);
+        }
+        cache.deflaters[i] = null;
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    /**
+     * Releases a deflater taken from the cache.
+     *
+     * @param deflater The deflater
+     * @param nowrap Whether the deflater writes raw deflate data
+     */
+    static void release(final Deflater deflater, final boolean nowrap) {
+        final IoCache cache = CACHE.get();
+        final int i = nowrap ? 1 : 0;
+        if (cache.deflaters[i] == null) {
+            deflater.reset();
+            cache.deflaters[i] = deflater;
+        } else {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Takes a buffer of {@link #BUFFER_SIZE} bytes from the cache, or
+     * creates one should none be cached.
+     *
+     * @return The buffer
+     */
+    static byte[] buffer() {
+        final byte[][] buffers = CACHE.get().buffers;
+        for (int i = 0; i < buffers.length; i++) {
+            final byte[] buffer = buffers[i];
+            if (buffer != null) {
+                buffers[i] = null;
+                return buffer;
+            }
+        }
+        return new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Releases a buffer taken from the cache.
+     *
+     * @param buffer The buffer
+     */
+    static void release(final byte[] buffer) {
+        final byte[][] buffers = CACHE.get().buffers;
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i] == null) {
+                buffers[i] = buffer;
+                return;
+            }
+        }
+    }
+
+    private final Inflater[] inflaters = new Inflater[2];
+    private final Deflater[] deflaters = new Deflater[2];
+
+    /**
+     * Room for the buffers of a compressed read or write, one for the
+     * compressed data and one for the uncompressed data.
+     */
+    private final byte[][] buffers = new byte[2][];
+
+    private IoCache() {
+    }
+
+}
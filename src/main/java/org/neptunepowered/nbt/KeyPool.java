@@ -0,0 +1,145 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.UTFDataFormatException;
+import java.util.Arrays;
+
+/**
+ * A bounded pool of tag names, used to share a single {@link String}
+ * instance between every compound using the same name.
+ *
+ * <p>Names are looked up by their encoded form, so a name that is
+ * already pooled doesn't need to be decoded again. The pool is a fixed
+ * size table, with newer names displacing older ones on collision, and
+ * is safe for use by multiple threads without locking.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class KeyPool {
+
+    /**
+     * The length, in encoded bytes, beyond which names are not pooled.
+     */
+    private static final int MAX_LENGTH = 64;
+    private static final int DEFAULT_CAPACITY = 2048;
+
+    private static final KeyPool SHARED = new KeyPool();
+
+    /**
+     * Gets the pool shared by the reads of {@link NbtIo}.
+     *
+     * @return The shared pool
+     */
+    public static KeyPool shared() {
+        return SHARED;
+    }
+
+    private final Entry[] entries;
+
+    /**
+     * Creates a pool with the default capacity.
+     */
+    public KeyPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a pool with room for at least the given number of names.
+     *
+     * @param capacity The capacity
+     */
+    public KeyPool(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive!");
+        }
+        // Round up to a power of two, so the index can be found by masking
+        this.entries = new Entry[Integer.highestOneBit(Math.max(1, capacity - 1)) << 1];
+    }
+
+    /**
+     * Gets the pooled name for the given modified UTF-8 encoding, decoding
+     * and pooling it should it not yet be pooled.
+     *
+     * @param bytes The encoded bytes
+     * @param offset The offset of the first byte
+     * @param length The number of bytes
+     * @return The name
+     * @throws UTFDataFormatException Should the bytes not be valid modified UTF-8
+     */
+    public String intern(final byte[] bytes, final int offset, final int length) throws UTFDataFormatException {
+        if (length > MAX_LENGTH) {
+            return ModifiedUtf8.decode(bytes, offset, length);
+        }
+
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        final int index = (hash ^ (hash >>> 16)) & (this.entries.length - 1);
+
+        final Entry entry = this.entries[index];
+        if (entry != null && entry.matches(bytes, offset, length)) {
+            return entry.value;
+        }
+
+        final String value = ModifiedUtf8.decode(bytes, offset, length);
+        this.entries[index] = new Entry(Arrays.copyOfRange(bytes, offset, offset + length), value);
+        return value;
+    }
+
+    /**
+     * A pooled name, alongside its encoded form.
+     *
+     * <p>As the fields are final, entries are safely published to other
+     * threads, even through the unsynchronised table.</p>
+     */
+    private static final class Entry {
+
+        final byte[] bytes;
+        final String value;
+
+        Entry(final byte[] bytes, final String value) {
+            this.bytes = bytes;
+            this.value = value;
+        }
+
+        boolean matches(final byte[] bytes, final int offset, final int length) {
+            if (this.bytes.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (this.bytes[i] != bytes[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
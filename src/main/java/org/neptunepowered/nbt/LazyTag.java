@@ -0,0 +1,209 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.neptunepowered.nbt.NbtConstants.TAG_BYTE_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_COMPOUND;
+import static org.neptunepowered.nbt.NbtConstants.TAG_INT_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LIST;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LONG_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.create;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A tag that has yet to be decoded, holding the serialised form of its
+ * payload - used by {@link CompoundTag compound tags} read lazily.
+ *
+ * <p>Lazy tags are never handed out by a compound, which decodes them on
+ * first access. Should they never be accessed, they are written back out
+ * exactly as they were read - unless written in the
+ * {@link NbtFormat#BEDROCK Bedrock} layouts, for which they are decoded
+ * first.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+final class LazyTag implements Tag {
+
+    /**
+     * Establishes whether tags of the given type are worth deferring the
+     * decoding of, which is only the case for those of a variable size.
+     *
+     * @param type The tag type
+     * @return {@code true} if the tag should be read lazily; {@code false} otherwise
+     */
+    static boolean isDeferred(final byte type) {
+        switch (type) {
+            case TAG_BYTE_ARRAY:
+            case TAG_LIST:
+            case TAG_COMPOUND:
+            case TAG_INT_ARRAY:
+            case TAG_LONG_ARRAY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gets the given tag, decoding it should it be lazy, for reading only.
+     *
+     * @param tag The tag
+     * @return The decoded tag
+     */
+    static Tag resolve(final Tag tag) {
+        return tag instanceof LazyTag ? ((LazyTag) tag).view() : tag;
+    }
+
+    private final byte type;
+    private final ByteBuffer payload;
+
+    // The tag once decoded for reading, such that comparing, hashing or
+    // transcoding the tag decodes it only once
+    private Tag decoded;
+
+    LazyTag(final byte type, final ByteBuffer payload) {
+        this.type = type;
+        this.payload = payload;
+    }
+
+    /**
+     * Decodes the tag from its serialised form, anew for each call, so
+     * the tag may be modified.
+     *
+     * @return The decoded tag
+     */
+    Tag decode() {
+        final ByteBufferInput input = new ByteBufferInput(this.payload, KeyPool.shared());
+        try {
+            if (this.type == TAG_COMPOUND) {
+                final CompoundTag tag = new CompoundTag();
+                tag.readLazy(input);
+                return tag;
+            }
+
+            final Tag tag = create(this.type);
+            tag.read(input);
+            return tag;
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("Failed to decode lazy tag", ex);
+        }
+    }
+
+    /**
+     * Gets the tag decoded from its serialised form, for reading only.
+     *
+     * <p>Unlike {@link #decode()}, the tag is decoded only once, and the
+     * same tag returned thereafter - so it must not be modified.</p>
+     *
+     * @return The decoded tag
+     */
+    Tag view() {
+        if (this.decoded == null) {
+            this.decoded = this.decode();
+        }
+        return this.decoded;
+    }
+
+    @Override
+    public Tag freeze() {
+        return this.decode().freeze();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof LazyTag) {
+            final LazyTag that = (LazyTag) obj;
+            if (this.type == that.type && this.payload.equals(that.payload)) {
+                return true;
+            }
+            return this.view().equals(that.view());
+        }
+        return obj instanceof Tag && this.view().equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.view().hashCode();
+    }
+
+    @Override
+    public int serializedSize() {
+        return this.payload.remaining();
+    }
+
+    /**
+     * Gets the size of the tag, counting its serialised form but not the
+     * buffer it is a view of, and the tag decoded for reading, should it
+     * have been.
+     *
+     * @return The size, in bytes
+     */
+    @Override
+    public long estimatedHeapSize() {
+        // The buffer object is roughly forty bytes of fields
+        final long size = HeapSize.object(1 + HeapSize.REFERENCE * 2) + HeapSize.object(40) + this.payload.remaining();
+        return this.decoded == null ? size : size + this.decoded.estimatedHeapSize();
+    }
+
+    @Override
+    public void read(final DataInput input) {
+        throw new UnsupportedOperationException("Lazy tags can't be read");
+    }
+
+    @Override
+    public void write(final DataOutput output) throws IOException {
+        // The payload is held in the Java layout, so must be decoded and
+        // written through the tag for any other
+        if (output instanceof BedrockOutput) {
+            this.view().write(output);
+            return;
+        }
+
+        final ByteBuffer payload = this.payload.duplicate();
+        if (payload.hasArray()) {
+            output.write(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining());
+        } else {
+            final byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            output.write(bytes);
+        }
+    }
+
+    @Override
+    public byte getId() {
+        return this.type;
+    }
+
+}
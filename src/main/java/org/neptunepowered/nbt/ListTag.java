@@ -25,26 +25,133 @@
 
 package org.neptunepowered.nbt;
 
+import static org.neptunepowered.nbt.NbtConstants.TAG_BYTE;
+import static org.neptunepowered.nbt.NbtConstants.TAG_BYTE_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_DOUBLE;
 import static org.neptunepowered.nbt.NbtConstants.TAG_END;
+import static org.neptunepowered.nbt.NbtConstants.TAG_FLOAT;
+import static org.neptunepowered.nbt.NbtConstants.TAG_INT;
+import static org.neptunepowered.nbt.NbtConstants.TAG_INT_ARRAY;
 import static org.neptunepowered.nbt.NbtConstants.TAG_LIST;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LONG;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LONG_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_SHORT;
+import static org.neptunepowered.nbt.NbtConstants.TAG_STRING;
 import static org.neptunepowered.nbt.NbtConstants.create;
 
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.lang.reflect.Array;
 
 /**
  * A list tag.
  *
+ * <p>Lists of numeric tags ({@link NbtConstants#TAG_BYTE byte} through
+ * {@link NbtConstants#TAG_DOUBLE double}) are backed by an array of the
+ * primitive type, rather than by an array of tags. Their values are best
+ * accessed through the typed getters, such as {@link #getInt(int)}, as
+ * {@link #get(int)} creates a new tag for each call.</p>
+ *
+ * <p>Once {@link #freeze() frozen}, a list can no longer be modified, and
+ * may be shared freely between threads. Modified versions of a frozen
+ * list are instead created through {@link #with(int, Tag)}.</p>
+ *
+ * <p>{@link #copy() Copies} of a list share the compounds and lists within
+ * it, copying each of them only once it is {@link #get(int) accessed}
+ * through either list, while {@link #peek(int)} reads them without
+ * copying. Both lists remain modifiable, independently of one another, as
+ * with {@link CompoundTag compounds}.</p>
+ *
+ * <p>Lists are equal to one another should they be of the same type, and
+ * hold equal tags in the same order. As with compounds, the hash of a
+ * frozen list is computed only once.</p>
+ *
  * @author Jamie Mansfield
  * @since 0.1.0
  */
 public class ListTag implements Tag {
 
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private static Object newArray(final byte type, final int length) {
+        switch (type) {
+            case TAG_BYTE: return new byte[length];
+            case TAG_SHORT: return new short[length];
+            case TAG_INT: return new int[length];
+            case TAG_LONG: return new long[length];
+            case TAG_FLOAT: return new float[length];
+            case TAG_DOUBLE: return new double[length];
+            default: return new Tag[length];
+        }
+    }
+
+    /**
+     * Gets the least number of bytes occupied by a tag of the given type,
+     * as written within a list.
+     *
+     * @param type The tag type
+     * @return The size, in bytes
+     */
+    private static int minimumSize(final byte type) {
+        switch (type) {
+            case TAG_SHORT:
+            case TAG_STRING:
+                return 2;
+            case TAG_INT:
+            case TAG_FLOAT:
+            case TAG_BYTE_ARRAY:
+            case TAG_INT_ARRAY:
+            case TAG_LONG_ARRAY:
+                return 4;
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                return 8;
+            case TAG_LIST:
+                return 5;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Reads the length of an array or list, each element of which occupies
+     * at least the given number of bytes, rejecting lengths that are
+     * negative, or exceed what remains of the input should it know.
+     *
+     * @param input The input
+     * @param width The least number of bytes occupied by each element
+     * @return The length
+     * @throws IOException Should an IO error occur, or the length be invalid
+     * @see NbtInput#readLength(int)
+     */
+    static int readLength(final DataInput input, final int width) throws IOException {
+        if (input instanceof NbtInput) {
+            return ((NbtInput) input).readLength(width);
+        }
+        final int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid length " + length + "!");
+        }
+        return length;
+    }
+
     private byte type;
-    private List<Tag> tags = new ArrayList<>();
+
+    /**
+     * The elements of the list, held in a primitive array for numeric
+     * types, or a {@link Tag} array otherwise.
+     */
+    private Object values;
+    private int size;
+    private boolean frozen;
+
+    // The tags this list shares with its copies, or with the list it was
+    // copied from, so are copied before being handed out for modification
+    private Tag[] inherited;
+
+    // The hash of a frozen list, once computed
+    private int hash;
 
     public ListTag() {
         this(TAG_END);
@@ -54,24 +161,679 @@ public ListTag(final byte type) {
         this.type = type;
     }
 
+    /**
+     * Gets the type of the tags within the list.
+     *
+     * @return The element type
+     */
+    public byte getElementType() {
+        return this.type;
+    }
+
+    /**
+     * Gets the number of tags within the list.
+     *
+     * @return The size of the list
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the tag at the given index of the list.
+     *
+     * <p>For lists of numeric tags, a new tag is created for each call.</p>
+     *
+     * @param index The index
+     * @return The tag
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    public Tag get(final int index) {
+        this.checkIndex(index);
+        switch (this.type) {
+            case TAG_BYTE: return new ByteTag(((byte[]) this.values)[index]);
+            case TAG_SHORT: return new ShortTag(((short[]) this.values)[index]);
+            case TAG_INT: return new IntTag(((int[]) this.values)[index]);
+            case TAG_LONG: return new LongTag(((long[]) this.values)[index]);
+            case TAG_FLOAT: return new FloatTag(((float[]) this.values)[index]);
+            case TAG_DOUBLE: return new DoubleTag(((double[]) this.values)[index]);
+            default: {
+                final Tag[] values = (Tag[]) this.values;
+                if (!this.frozen && (this.inherits(index, values[index]) || CompoundTag.isFrozen(values[index]))) {
+                    // The tag may be modified once handed out, so must be ours alone
+                    values[index] = values[index].copy();
+                }
+                return values[index];
+            }
+        }
+    }
+
+    /**
+     * Gets the tag at the given index of the list, for reading only.
+     *
+     * <p>Unlike {@link #get(int)}, tags shared with another list, such as
+     * those of a {@link #copy() copy}, are not copied - so the tag must
+     * not be modified.</p>
+     *
+     * @param index The index
+     * @return The tag
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    public Tag peek(final int index) {
+        return this.lookup(index);
+    }
+
+    /**
+     * Adds a {@link Tag tag} to the end of the list.
+     *
+     * <p>Should the list be empty and of type {@link NbtConstants#TAG_END},
+     * it will take on the type of the given tag.</p>
+     *
+     * @param tag The tag
+     * @throws IllegalArgumentException If the tag is not of the list's type
+     */
+    public void add(final Tag tag) {
+        this.accept(tag.getId());
+        set(this.grow(this.size + 1), this.type, this.size, tag);
+        this.size++;
+    }
+
+    /**
+     * Gets the tag at the given index of the list, as it is stored -
+     * without copying shared tags.
+     *
+     * @param index The index
+     * @return The tag
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    Tag lookup(final int index) {
+        if (this.values instanceof Tag[]) {
+            this.checkIndex(index);
+            return ((Tag[]) this.values)[index];
+        }
+        return this.get(index);
+    }
+
+    /**
+     * Replaces the {@link Tag tag} at the given index of the list.
+     *
+     * @param index The index
+     * @param tag The tag
+     * @throws IndexOutOfBoundsException If the index is out of range
+     * @throws IllegalArgumentException If the tag is not of the list's type
+     */
+    public void set(final int index, final Tag tag) {
+        this.checkMutable();
+        this.checkIndex(index);
+        if (tag.getId() != this.type) {
+            throw new IllegalArgumentException("Cannot add tag of type " + tag.getId() + " to list of type " + this.type + "!");
+        }
+        set(this.values, this.type, index, tag);
+    }
+
+    /**
+     * Gets the value at the given index of the list.
+     *
+     * @param index The index
+     * @return The value, or {@code 0} if the list isn't of bytes
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    public byte getByte(final int index) {
+        this.checkIndex(index);
+        return this.type == TAG_BYTE ? ((byte[]) this.values)[index] : (byte) 0;
+    }
+
+    /**
+     * Adds the value to the end of the list.
+     *
+     * @param value The value
+     * @throws IllegalArgumentException If the list isn't of bytes
+     */
+    public void addByte(final byte value) {
+        this.accept(TAG_BYTE);
+        ((byte[]) this.grow(this.size + 1))[this.size++] = value;
+    }
+
+    /**
+     * Gets the value at the given index of the list.
+     *
+     * @param index The index
+     * @return The value, or {@code 0} if the list isn't of shorts
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    public short getShort(final int index) {
+        this.checkIndex(index);
+        return this.type == TAG_SHORT ? ((short[]) this.values)[index] : (short) 0;
+    }
+
+    /**
+     * Adds the value to the end of the list.
+     *
+     * @param value The value
+     * @throws IllegalArgumentException If the list isn't of shorts
+     */
+    public void addShort(final short value) {
+        this.accept(TAG_SHORT);
+        ((short[]) this.grow(this.size + 1))[this.size++] = value;
+    }
+
+    /**
+     * Gets the value at the given index of the list.
+     *
+     * @param index The index
+     * @return The value, or {@code 0} if the list isn't of integers
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    public int getInt(final int index) {
+        this.checkIndex(index);
+        return this.type == TAG_INT ? ((int[]) this.values)[index] : 0;
+    }
+
+    /**
+     * Adds the value to the end of the list.
+     *
+     * @param value The value
+     * @throws IllegalArgumentException If the list isn't of integers
+     */
+    public void addInt(final int value) {
+        this.accept(TAG_INT);
+        ((int[]) this.grow(this.size + 1))[this.size++] = value;
+    }
+
+    /**
+     * Gets the value at the given index of the list.
+     *
+     * @param index The index
+     * @return The value, or {@code 0} if the list isn't of longs
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    public long getLong(final int index) {
+        this.checkIndex(index);
+        return this.type == TAG_LONG ? ((long[]) this.values)[index] : 0;
+    }
+
+    /**
+     * Adds the value to the end of the list.
+     *
+     * @param value The value
+     * @throws IllegalArgumentException If the list isn't of longs
+     */
+    public void addLong(final long value) {
+        this.accept(TAG_LONG);
+        ((long[]) this.grow(this.size + 1))[this.size++] = value;
+    }
+
+    /**
+     * Gets the value at the given index of the list.
+     *
+     * @param index The index
+     * @return The value, or {@code 0} if the list isn't of floats
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    public float getFloat(final int index) {
+        this.checkIndex(index);
+        return this.type == TAG_FLOAT ? ((float[]) this.values)[index] : 0;
+    }
+
+    /**
+     * Adds the value to the end of the list.
+     *
+     * @param value The value
+     * @throws IllegalArgumentException If the list isn't of floats
+     */
+    public void addFloat(final float value) {
+        this.accept(TAG_FLOAT);
+        ((float[]) this.grow(this.size + 1))[this.size++] = value;
+    }
+
+    /**
+     * Gets the value at the given index of the list.
+     *
+     * @param index The index
+     * @return The value, or {@code 0} if the list isn't of doubles
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    public double getDouble(final int index) {
+        this.checkIndex(index);
+        return this.type == TAG_DOUBLE ? ((double[]) this.values)[index] : 0;
+    }
+
+    /**
+     * Adds the value to the end of the list.
+     *
+     * @param value The value
+     * @throws IllegalArgumentException If the list isn't of doubles
+     */
+    public void addDouble(final double value) {
+        this.accept(TAG_DOUBLE);
+        ((double[]) this.grow(this.size + 1))[this.size++] = value;
+    }
+
+    /**
+     * Creates a frozen list, holding the tags of this list, with the tag at
+     * the given index replaced.
+     *
+     * <p>Only the list itself is copied, with every other tag shared
+     * between the two lists. The given tag will be frozen, should it not
+     * already be.</p>
+     *
+     * @param index The index
+     * @param tag The tag
+     * @return The new list
+     * @throws IllegalStateException If this list isn't frozen
+     * @throws IndexOutOfBoundsException If the index is out of range
+     * @throws IllegalArgumentException If the tag is not of the list's type
+     */
+    public ListTag with(final int index, final Tag tag) {
+        if (!this.frozen) {
+            throw new IllegalStateException("Only frozen lists can be updated using with!");
+        }
+        this.checkIndex(index);
+        if (tag.getId() != this.type) {
+            throw new IllegalArgumentException("Cannot add tag of type " + tag.getId() + " to list of type " + this.type + "!");
+        }
+
+        final ListTag list = this.shallowCopy();
+        set(list.values, this.type, index, tag.freeze());
+        list.frozen = true;
+        return list;
+    }
+
+    /**
+     * Creates a copy of the list, which may be modified independently of
+     * this list.
+     *
+     * <p>Only the list itself is copied, with the tags within it shared
+     * until they are {@link #get(int) accessed} through either list - at
+     * which point that list is given its own copy of the tag, leaving the
+     * other's untouched. Copies of a frozen list are not frozen.</p>
+     *
+     * <p>Tags obtained from this list before copying are shared by both
+     * lists, so should be obtained again once copied.</p>
+     *
+     * @return The copy
+     */
+    @Override
+    public ListTag copy() {
+        final ListTag list = this.shallowCopy();
+        if (list.values instanceof Tag[] && list.size != 0) {
+            list.inherited = ((Tag[]) list.values).clone();
+
+            // Every tag is now shared by both lists, so this list must also
+            // copy them before handing them out
+            if (!this.frozen) {
+                this.inherited = list.inherited;
+            }
+        }
+        return list;
+    }
+
+    private ListTag shallowCopy() {
+        final ListTag list = new ListTag(this.type);
+        if (this.values != null) {
+            list.values = newArray(this.type, this.size);
+            System.arraycopy(this.values, 0, list.values, 0, this.size);
+        }
+        list.size = this.size;
+        return list;
+    }
+
+    /**
+     * Establishes whether the given tag is one this list shares, at the
+     * given index, with a {@link #copy() copy}, or with the list it was
+     * copied from.
+     *
+     * @param index The index
+     * @param tag The tag
+     * @return {@code true} if the tag is inherited; {@code false} otherwise
+     */
+    private boolean inherits(final int index, final Tag tag) {
+        return this.inherited != null && index < this.inherited.length && this.inherited[index] == tag;
+    }
+
+    /**
+     * Freezes the list, and every tag within it, preventing any further
+     * modification.
+     *
+     * @return This list
+     */
+    @Override
+    public ListTag freeze() {
+        if (this.frozen) {
+            return this;
+        }
+
+        if (this.values instanceof Tag[]) {
+            final Tag[] values = (Tag[]) this.values;
+            for (int i = 0; i < this.size; i++) {
+                values[i] = values[i].freeze();
+            }
+        }
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Establishes whether the list has been {@link #freeze() frozen}.
+     *
+     * @return {@code true} if the list is frozen; {@code false} otherwise
+     */
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Sets the element at the given index of the backing array.
+     *
+     * @param values The backing array
+     * @param type The element type
+     * @param index The index
+     * @param tag The tag, of the element type
+     */
+    private static void set(final Object values, final byte type, final int index, final Tag tag) {
+        switch (type) {
+            case TAG_BYTE:
+                ((byte[]) values)[index] = ((ByteTag) tag).getValue();
+                break;
+            case TAG_SHORT:
+                ((short[]) values)[index] = ((ShortTag) tag).getValue();
+                break;
+            case TAG_INT:
+                ((int[]) values)[index] = ((IntTag) tag).getValue();
+                break;
+            case TAG_LONG:
+                ((long[]) values)[index] = ((LongTag) tag).getValue();
+                break;
+            case TAG_FLOAT:
+                ((float[]) values)[index] = ((FloatTag) tag).getValue();
+                break;
+            case TAG_DOUBLE:
+                ((double[]) values)[index] = ((DoubleTag) tag).getValue();
+                break;
+            default:
+                ((Tag[]) values)[index] = tag;
+                break;
+        }
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen lists can't be modified!");
+        }
+    }
+
+    /**
+     * Ensures that tags of the given type may be added to the list,
+     * adopting the type should the list be empty and untyped.
+     *
+     * @param type The tag type
+     */
+    private void accept(final byte type) {
+        this.checkMutable();
+        if (this.type == TAG_END && this.size == 0) {
+            if (this.type != type) {
+                this.values = null;
+            }
+            this.type = type;
+        } else if (type != this.type) {
+            throw new IllegalArgumentException("Cannot add tag of type " + type + " to list of type " + this.type + "!");
+        }
+    }
+
+    /**
+     * Ensures the backing array can hold at least the given number of
+     * elements, growing it if necessary.
+     *
+     * @param capacity The required capacity
+     * @return The backing array
+     */
+    private Object grow(final int capacity) {
+        final int current = this.values == null ? 0 : Array.getLength(this.values);
+        if (current < capacity) {
+            final Object grown = newArray(this.type, Math.max(capacity, Math.max(DEFAULT_CAPACITY, current * 2)));
+            if (this.values != null) {
+                System.arraycopy(this.values, 0, grown, 0, this.size);
+            }
+            this.values = grown;
+        }
+        return this.values;
+    }
+
     @Override
     public void read(final DataInput input) throws IOException {
+        this.checkMutable();
         this.type = input.readByte();
 
-        final int length = input.readInt();
-        for (int i = 0; i > length; i++) {
-            final Tag tag = create(this.type);
-            tag.read(input);
-            this.tags.add(tag);
+        final int length = readLength(input, minimumSize(this.type));
+        if (this.type == TAG_END && length != 0) {
+            // End tags occupy nothing, so there is no telling how many may fit
+            throw new IOException("Lists of end tags must be empty!");
         }
+        switch (this.type) {
+            case TAG_BYTE: {
+                final byte[] values = new byte[length];
+                input.readFully(values);
+                this.values = values;
+                break;
+            }
+            case TAG_SHORT: {
+                final short[] values = new short[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = input.readShort();
+                }
+                this.values = values;
+                break;
+            }
+            case TAG_INT: {
+                final int[] values = new int[length];
+                IntArrayTag.readValues(input, values, length);
+                this.values = values;
+                break;
+            }
+            case TAG_LONG: {
+                final long[] values = new long[length];
+                LongArrayTag.readValues(input, values, length);
+                this.values = values;
+                break;
+            }
+            case TAG_FLOAT: {
+                final float[] values = new float[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = input.readFloat();
+                }
+                this.values = values;
+                break;
+            }
+            case TAG_DOUBLE: {
+                final double[] values = new double[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = input.readDouble();
+                }
+                this.values = values;
+                break;
+            }
+            default: {
+                final Tag[] values = new Tag[length];
+                for (int i = 0; i < length; i++) {
+                    final Tag tag = create(this.type);
+                    tag.read(input);
+                    values[i] = CompoundTag.canonicalize(input, tag);
+                }
+                this.values = values;
+                break;
+            }
+        }
+        this.size = length;
     }
 
     @Override
     public void write(final DataOutput output) throws IOException {
         output.writeByte(this.type);
-        output.writeInt(this.tags.size());
-        for (final Tag tag : this.tags) {
-            tag.write(output);
+        output.writeInt(this.size);
+        switch (this.type) {
+            case TAG_BYTE:
+                if (this.size > 0) {
+                    output.write((byte[]) this.values, 0, this.size);
+                }
+                break;
+            case TAG_SHORT: {
+                final short[] values = (short[]) this.values;
+                for (int i = 0; i < this.size; i++) {
+                    output.writeShort(values[i]);
+                }
+                break;
+            }
+            case TAG_INT:
+                IntArrayTag.writeValues(output, (int[]) this.values, this.size);
+                break;
+            case TAG_LONG:
+                LongArrayTag.writeValues(output, (long[]) this.values, this.size);
+                break;
+            case TAG_FLOAT: {
+                final float[] values = (float[]) this.values;
+                for (int i = 0; i < this.size; i++) {
+                    output.writeFloat(values[i]);
+                }
+                break;
+            }
+            case TAG_DOUBLE: {
+                final double[] values = (double[]) this.values;
+                for (int i = 0; i < this.size; i++) {
+                    output.writeDouble(values[i]);
+                }
+                break;
+            }
+            default: {
+                final Tag[] values = (Tag[]) this.values;
+                for (int i = 0; i < this.size; i++) {
+                    values[i].write(output);
+                }
+                break;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ListTag)) {
+            return false;
+        }
+        final ListTag that = (ListTag) obj;
+        if (this.type != that.type || this.size != that.size) {
+            return false;
+        }
+        if (this.hash != 0 && that.hash != 0 && this.hash != that.hash) {
+            return false;
+        }
+
+        for (int i = 0; i < this.size; i++) {
+            final boolean equal;
+            switch (this.type) {
+                case TAG_BYTE:
+                    equal = ((byte[]) this.values)[i] == ((byte[]) that.values)[i];
+                    break;
+                case TAG_SHORT:
+                    equal = ((short[]) this.values)[i] == ((short[]) that.values)[i];
+                    break;
+                case TAG_INT:
+                    equal = ((int[]) this.values)[i] == ((int[]) that.values)[i];
+                    break;
+                case TAG_LONG:
+                    equal = ((long[]) this.values)[i] == ((long[]) that.values)[i];
+                    break;
+                case TAG_FLOAT:
+                    equal = Float.floatToIntBits(((float[]) this.values)[i]) == Float.floatToIntBits(((float[]) that.values)[i]);
+                    break;
+                case TAG_DOUBLE:
+                    equal = Double.doubleToLongBits(((double[]) this.values)[i]) == Double.doubleToLongBits(((double[]) that.values)[i]);
+                    break;
+                default: {
+                    final Tag value = ((Tag[]) this.values)[i];
+                    final Tag other = ((Tag[]) that.values)[i];
+                    equal = value == other || value.equals(other);
+                    break;
+                }
+            }
+            if (!equal) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = this.type;
+            for (int i = 0; i < this.size; i++) {
+                final int element;
+                switch (this.type) {
+                    case TAG_BYTE: element = Byte.hashCode(((byte[]) this.values)[i]); break;
+                    case TAG_SHORT: element = Short.hashCode(((short[]) this.values)[i]); break;
+                    case TAG_INT: element = Integer.hashCode(((int[]) this.values)[i]); break;
+                    case TAG_LONG: element = Long.hashCode(((long[]) this.values)[i]); break;
+                    case TAG_FLOAT: element = Float.hashCode(((float[]) this.values)[i]); break;
+                    case TAG_DOUBLE: element = Double.hashCode(((double[]) this.values)[i]); break;
+                    default: element = ((Tag[]) this.values)[i].hashCode(); break;
+                }
+                hash = 31 * hash + element;
+            }
+            if (this.frozen) {
+                this.hash = hash;
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public int serializedSize() {
+        int size = 5;
+        switch (this.type) {
+            case TAG_BYTE: return size + this.size;
+            case TAG_SHORT: return size + this.size * 2;
+            case TAG_INT:
+            case TAG_FLOAT: return size + this.size * 4;
+            case TAG_LONG:
+            case TAG_DOUBLE: return size + this.size * 8;
+            default:
+                for (int i = 0; i < this.size; i++) {
+                    size += ((Tag[]) this.values)[i].serializedSize();
+                }
+                return size;
+        }
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        long size = HeapSize.object(1 + HeapSize.REFERENCE * 2 + 4 + 1 + 4);
+        if (this.values == null) {
+            return size;
+        }
+
+        final int capacity = Array.getLength(this.values);
+        switch (this.type) {
+            case TAG_BYTE: return size + HeapSize.array(capacity, 1);
+            case TAG_SHORT: return size + HeapSize.array(capacity, 2);
+            case TAG_INT:
+            case TAG_FLOAT: return size + HeapSize.array(capacity, 4);
+            case TAG_LONG:
+            case TAG_DOUBLE: return size + HeapSize.array(capacity, 8);
+            default:
+                size += HeapSize.array(capacity, HeapSize.REFERENCE);
+                for (int i = 0; i < this.size; i++) {
+                    size += ((Tag[]) this.values)[i].estimatedHeapSize();
+                }
+                return size;
         }
     }
 
@@ -30,6 +30,7 @@
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * A long array tag.
@@ -40,6 +41,7 @@
 public class LongArrayTag implements Tag {
 
     private long[] value;
+    private boolean frozen;
 
     public LongArrayTag() {
     }
@@ -58,20 +60,104 @@ public long[] getValue() {
     }
 
     @Override
-    public void read(final DataInput input) throws IOException {
-        final int length = input.readInt();
-        this.value = new long[length];
+    public LongArrayTag copy() {
+        return new LongArrayTag(this.value == null ? null : this.value.clone());
+    }
+
+    /**
+     * Freezes the tag, such that it can no longer be
+     * {@link #read(DataInput) read} into. As the array is not copied, it
+     * must not be modified once frozen.
+     *
+     * @return This tag
+     */
+    @Override
+    public LongArrayTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Reads the given number of values into the array, in bulk should the
+     * input support it.
+     *
+     * @param input The input
+     * @param values The array to read into
+     * @param length The number of values
+     * @throws IOException Should an IO error occur
+     * @see NbtInput#readLongs(long[], int, int)
+     */
+    static void readValues(final DataInput input, final long[] values, final int length) throws IOException {
+        if (input instanceof NbtInput) {
+            ((NbtInput) input).readLongs(values, 0, length);
+            return;
+        }
         for (int i = 0; i < length; i++) {
-            this.value[i] = input.readLong();
+            values[i] = input.readLong();
         }
     }
 
+    /**
+     * Writes the given number of values from the array, in bulk should the
+     * output support it.
+     *
+     * @param output The output
+     * @param values The array to write from
+     * @param length The number of values
+     * @throws IOException Should an IO error occur
+     * @see NbtOutput#writeLongs(long[], int, int)
+     */
+    static void writeValues(final DataOutput output, final long[] values, final int length) throws IOException {
+        if (output instanceof NbtOutput) {
+            ((NbtOutput) output).writeLongs(values, 0, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            output.writeLong(values[i]);
+        }
+    }
+
+    @Override
+    public void read(final DataInput input) throws IOException {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen tags can't be modified!");
+        }
+        final int length = ListTag.readLength(input, Long.BYTES);
+        this.value = new long[length];
+        readValues(input, this.value, length);
+    }
+
     @Override
     public void write(final DataOutput output) throws IOException {
         output.writeInt(this.value.length);
-        for (final long i : this.value) {
-            output.writeLong(i);
+        writeValues(output, this.value, this.value.length);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
         }
+        if (!(obj instanceof LongArrayTag)) {
+            return false;
+        }
+        final LongArrayTag that = (LongArrayTag) obj;
+        return Arrays.equals(this.value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.value);
+    }
+
+    @Override
+    public int serializedSize() {
+        return 4 + this.value.length * 8;
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        return HeapSize.object(HeapSize.REFERENCE + 1) + (this.value == null ? 0 : HeapSize.array(this.value.length, 8));
     }
 
     @Override
@@ -40,6 +40,7 @@
 public class LongTag implements Tag {
 
     private long value;
+    private boolean frozen;
 
     public LongTag() {
     }
@@ -57,8 +58,34 @@ public long getValue() {
         return this.value;
     }
 
+    /**
+     * Freezes the tag, such that it can no longer be
+     * {@link #read(DataInput) read} into.
+     *
+     * @return This tag
+     */
+    @Override
+    public LongTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Creates a copy of the tag, unless it is frozen, in which case it is
+     * returned as is.
+     *
+     * @return The copy, which may be this tag
+     */
+    @Override
+    public LongTag copy() {
+        return this.frozen ? this : new LongTag(this.value);
+    }
+
     @Override
     public void read(final DataInput input) throws IOException {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen tags can't be modified!");
+        }
         this.value = input.readLong();
     }
 
@@ -67,6 +94,33 @@ public void write(final DataOutput output) throws IOException {
         output.writeLong(this.value);
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LongTag)) {
+            return false;
+        }
+        final LongTag that = (LongTag) obj;
+        return this.value == that.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.value);
+    }
+
+    @Override
+    public int serializedSize() {
+        return 8;
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        return HeapSize.object(8 + 1);
+    }
+
     @Override
     public byte getId() {
         return TAG_LONG;
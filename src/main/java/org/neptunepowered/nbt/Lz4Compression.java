@@ -0,0 +1,470 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * LZ4 {@link NbtCompression compression}, implemented in Java.
+ *
+ * <p>Data is split into blocks of up to 64 KiB, each compressed
+ * independently using the LZ4 block format. Each block is preceded by
+ * its uncompressed and compressed lengths, as big-endian integers, with
+ * blocks that don't compress stored as is, indicated by equal lengths.
+ * The stream ends with a block of length zero.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+final class Lz4Compression implements NbtCompression {
+
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xFFFF;
+
+    /**
+     * The number of bytes at the end of a block that are always literals.
+     */
+    private static final int LAST_LITERALS = 5;
+
+    /**
+     * The distance from the end of a block beyond which no match may start.
+     */
+    private static final int MF_LIMIT = 12;
+
+    private static final int HASH_LOG = 12;
+
+    /**
+     * Gets the greatest length to which the given number of bytes may
+     * compress, should they not be compressible.
+     *
+     * @param length The uncompressed length
+     * @return The greatest compressed length
+     */
+    static int maxCompressedLength(final int length) {
+        return length + length / 255 + 16;
+    }
+
+    private static int hash(final int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static int readInt(final byte[] bytes, final int offset) {
+        return (bytes[offset] & 0xFF)
+                | (bytes[offset + 1] & 0xFF) << 8
+                | (bytes[offset + 2] & 0xFF) << 16
+                | (bytes[offset + 3] & 0xFF) << 24;
+    }
+
+    private static int writeLength(int length, final byte[] dst, int offset) {
+        while (length >= 0xFF) {
+            dst[offset++] = (byte) 0xFF;
+            length -= 0xFF;
+        }
+        dst[offset++] = (byte) length;
+        return offset;
+    }
+
+    /**
+     * Compresses the given bytes as a single LZ4 block.
+     *
+     * @param src The bytes to compress
+     * @param srcOffset The offset of the first byte
+     * @param srcLength The number of bytes
+     * @param dst The array to compress into, with room for at least
+     *            {@link #maxCompressedLength(int)} bytes
+     * @param dstOffset The offset to compress at
+     * @param table The hash table, of at least {@code 1 << 12} entries,
+     *              which is reset before use
+     * @return The compressed length
+     */
+    static int compress(final byte[] src, final int srcOffset, final int srcLength,
+            final byte[] dst, final int dstOffset, final int[] table) {
+        final int end = srcOffset + srcLength;
+        final int matchLimit = end - LAST_LITERALS;
+        final int mfLimit = end - MF_LIMIT;
+
+        int ip = srcOffset;
+        int anchor = srcOffset;
+        int op = dstOffset;
+
+        if (srcLength > MF_LIMIT) {
+            Arrays.fill(table, 0, 1 << HASH_LOG, -1);
+
+            while (ip < mfLimit) {
+                final int sequence = readInt(src, ip);
+                final int h = hash(sequence);
+                int ref = table[h];
+                table[h] = ip;
+
+                if (ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                    // Skip ahead faster the longer no match has been found
+                    ip += 1 + ((ip - anchor) >>> 6);
+                    continue;
+                }
+
+                // Extend the match backwards, then forwards
+                while (ip > anchor && ref > srcOffset && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int length = MIN_MATCH;
+                while (ip + length < matchLimit && src[ip + length] == src[ref + length]) {
+                    length++;
+                }
+
+                // Write the sequence, literals followed by the match
+                final int literals = ip - anchor;
+                final int token = op++;
+                if (literals >= 0x0F) {
+                    dst[token] = (byte) 0xF0;
+                    op = writeLength(literals - 0x0F, dst, op);
+                } else {
+                    dst[token] = (byte) (literals << 4);
+                }
+                System.arraycopy(src, anchor, dst, op, literals);
+                op += literals;
+
+                final int offset = ip - ref;
+                dst[op++] = (byte) offset;
+                dst[op++] = (byte) (offset >>> 8);
+
+                final int matchLength = length - MIN_MATCH;
+                if (matchLength >= 0x0F) {
+                    dst[token] |= 0x0F;
+                    op = writeLength(matchLength - 0x0F, dst, op);
+                } else {
+                    dst[token] |= (byte) matchLength;
+                }
+
+                ip += length;
+                anchor = ip;
+            }
+        }
+
+        // The remainder of the block is written as literals
+        final int literals = end - anchor;
+        if (literals >= 0x0F) {
+            dst[op++] = (byte) 0xF0;
+            op = writeLength(literals - 0x0F, dst, op);
+        } else {
+            dst[op++] = (byte) (literals << 4);
+        }
+        System.arraycopy(src, anchor, dst, op, literals);
+        op += literals;
+
+        return op - dstOffset;
+    }
+
+    /**
+     * Decompresses a single LZ4 block.
+     *
+     * @param src The compressed block
+     * @param srcOffset The offset of the block
+     * @param srcLength The length of the block
+     * @param dst The array to decompress into
+     * @param dstOffset The offset to decompress at
+     * @param dstLength The uncompressed length of the block
+     * @throws IOException Should the block be malformed
+     */
+    static void decompress(final byte[] src, final int srcOffset, final int srcLength,
+            final byte[] dst, final int dstOffset, final int dstLength) throws IOException {
+        final int srcEnd = srcOffset + srcLength;
+        final int dstEnd = dstOffset + dstLength;
+        int ip = srcOffset;
+        int op = dstOffset;
+
+        while (true) {
+            if (ip >= srcEnd) {
+                throw new IOException("Malformed LZ4 block: truncated sequence");
+            }
+            final int token = src[ip++] & 0xFF;
+
+            int literals = token >>> 4;
+            if (literals == 0x0F) {
+                int b;
+                do {
+                    if (ip >= srcEnd) {
+                        throw new IOException("Malformed LZ4 block: truncated length");
+                    }
+                    b = src[ip++] & 0xFF;
+                    literals += b;
+                } while (b == 0xFF);
+            }
+            if (literals > srcEnd - ip || literals > dstEnd - op) {
+                throw new IOException("Malformed LZ4 block: literals exceed block");
+            }
+            System.arraycopy(src, ip, dst, op, literals);
+            ip += literals;
+            op += literals;
+
+            // The final sequence has no match
+            if (ip == srcEnd) {
+                break;
+            }
+
+            if (srcEnd - ip < 2) {
+                throw new IOException("Malformed LZ4 block: truncated offset");
+            }
+            final int offset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+            ip += 2;
+            if (offset == 0 || offset > op - dstOffset) {
+                throw new IOException("Malformed LZ4 block: offset " + offset + " out of range");
+            }
+
+            int length = token & 0x0F;
+            if (length == 0x0F) {
+                int b;
+                do {
+                    if (ip >= srcEnd) {
+                        throw new IOException("Malformed LZ4 block: truncated length");
+                    }
+                    b = src[ip++] & 0xFF;
+                    length += b;
+                } while (b == 0xFF);
+            }
+            length += MIN_MATCH;
+            if (length > dstEnd - op) {
+                throw new IOException("Malformed LZ4 block: match exceeds block");
+            }
+
+            final int ref = op - offset;
+            if (offset >= length) {
+                System.arraycopy(dst, ref, dst, op, length);
+            } else {
+                // The match overlaps itself, repeating the last bytes written
+                for (int i = 0; i < length; i++) {
+                    dst[op + i] = dst[ref + i];
+                }
+            }
+            op += length;
+        }
+
+        if (op != dstEnd) {
+            throw new IOException("Malformed LZ4 block: expected " + dstLength + " bytes, got " + (op - dstOffset));
+        }
+    }
+
+    @Override
+    public InputStream decompress(final InputStream in) {
+        return new Lz4InputStream(in);
+    }
+
+    @Override
+    public OutputStream compress(final OutputStream out) {
+        return new Lz4OutputStream(out);
+    }
+
+    /**
+     * An {@link InputStream} decompressing LZ4 blocks.
+     */
+    private static final class Lz4InputStream extends InputStream {
+
+        private final InputStream in;
+        private final byte[] compressed = new byte[BLOCK_SIZE];
+        private final byte[] buffer = new byte[BLOCK_SIZE];
+        private int position;
+        private int limit;
+        private boolean finished;
+
+        Lz4InputStream(final InputStream in) {
+            this.in = in;
+        }
+
+        private boolean fill() throws IOException {
+            while (this.position == this.limit) {
+                if (this.finished) {
+                    return false;
+                }
+
+                final int length = this.readInt();
+                if (length == 0) {
+                    this.finished = true;
+                    return false;
+                }
+                final int compressedLength = this.readInt();
+                if (length < 0 || length > BLOCK_SIZE || compressedLength <= 0 || compressedLength > length) {
+                    throw new IOException("Malformed LZ4 stream: invalid block lengths");
+                }
+
+                if (compressedLength == length) {
+                    this.readFully(this.buffer, compressedLength);
+                } else {
+                    this.readFully(this.compressed, compressedLength);
+                    Lz4Compression.decompress(this.compressed, 0, compressedLength, this.buffer, 0, length);
+                }
+                this.position = 0;
+                this.limit = length;
+            }
+            return true;
+        }
+
+        private int readInt() throws IOException {
+            this.readFully(this.compressed, Integer.BYTES);
+            final byte[] b = this.compressed;
+            return (b[0] << 24) | ((b[1] & 0xFF) << 16) | ((b[2] & 0xFF) << 8) | (b[3] & 0xFF);
+        }
+
+        private void readFully(final byte[] b, final int length) throws IOException {
+            int off = 0;
+            while (off < length) {
+                final int read = this.in.read(b, off, length - off);
+                if (read < 0) {
+                    throw new EOFException();
+                }
+                off += read;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!this.fill()) {
+                return -1;
+            }
+            return this.buffer[this.position++] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!this.fill()) {
+                return -1;
+            }
+
+            final int count = Math.min(len, this.limit - this.position);
+            System.arraycopy(this.buffer, this.position, b, off, count);
+            this.position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return this.limit - this.position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.in.close();
+        }
+
+    }
+
+    /**
+     * An {@link OutputStream} compressing into LZ4 blocks.
+     */
+    private static final class Lz4OutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BLOCK_SIZE];
+        private final byte[] compressed = new byte[2 * Integer.BYTES + maxCompressedLength(BLOCK_SIZE)];
+        private final int[] table = new int[1 << HASH_LOG];
+        private int count;
+        private boolean closed;
+
+        Lz4OutputStream(final OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (this.count == BLOCK_SIZE) {
+                this.writeBlock();
+            }
+            this.buffer[this.count++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (this.count == BLOCK_SIZE) {
+                    this.writeBlock();
+                }
+                final int n = Math.min(len, BLOCK_SIZE - this.count);
+                System.arraycopy(b, off, this.buffer, this.count, n);
+                this.count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        private void writeBlock() throws IOException {
+            if (this.count == 0) {
+                return;
+            }
+
+            final int header = 2 * Integer.BYTES;
+            int length = Lz4Compression.compress(this.buffer, 0, this.count, this.compressed, header, this.table);
+            if (length >= this.count) {
+                // Incompressible, so stored as is
+                System.arraycopy(this.buffer, 0, this.compressed, header, this.count);
+                length = this.count;
+            }
+
+            putInt(this.compressed, 0, this.count);
+            putInt(this.compressed, Integer.BYTES, length);
+            this.out.write(this.compressed, 0, header + length);
+            this.count = 0;
+        }
+
+        private static void putInt(final byte[] b, final int offset, final int value) {
+            b[offset] = (byte) (value >>> 24);
+            b[offset + 1] = (byte) (value >>> 16);
+            b[offset + 2] = (byte) (value >>> 8);
+            b[offset + 3] = (byte) value;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.writeBlock();
+            this.out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+
+            try {
+                this.writeBlock();
+                putInt(this.compressed, 0, 0);
+                this.out.write(this.compressed, 0, Integer.BYTES);
+            } finally {
+                this.out.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Functions for the modified UTF-8 encoding used by NBT, as by
+ * {@link java.io.DataInput#readUTF()}.
+ *
+ * <p>As the vast majority of strings are entirely ASCII, which is encoded
+ * as is, runs of ASCII are copied directly rather than being decoded, or
+ * encoded, a character at a time.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+final class ModifiedUtf8 {
+
+    /**
+     * Decodes the string from its modified UTF-8 encoding.
+     *
+     * @param bytes The encoded bytes
+     * @param offset The offset of the first byte
+     * @param length The number of bytes
+     * @return The string
+     * @throws UTFDataFormatException Should the bytes not be valid modified UTF-8
+     */
+    static String decode(final byte[] bytes, final int offset, final int length) throws UTFDataFormatException {
+        final int end = offset + length;
+        int i = offset;
+        while (i < end && bytes[i] >= 0) {
+            i++;
+        }
+        if (i == end) {
+            // ASCII is a subset of Latin-1, which is copied directly into the string
+            return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+        }
+
+        final char[] chars = new char[length];
+        int count = i - offset;
+        for (int j = 0; j < count; j++) {
+            chars[j] = (char) bytes[offset + j];
+        }
+
+        while (i < end) {
+            final int a = bytes[i] & 0xFF;
+            if (a < 0x80) {
+                chars[count++] = (char) a;
+                i++;
+            } else if ((a & 0xE0) == 0xC0) {
+                if (i + 1 >= end) {
+                    throw new UTFDataFormatException("Malformed input: partial character at end");
+                }
+                final int b = bytes[i + 1];
+                if ((b & 0xC0) != 0x80) {
+                    throw new UTFDataFormatException("Malformed input around byte " + (i - offset));
+                }
+                chars[count++] = (char) (((a & 0x1F) << 6) | (b & 0x3F));
+                i += 2;
+            } else if ((a & 0xF0) == 0xE0) {
+                if (i + 2 >= end) {
+                    throw new UTFDataFormatException("Malformed input: partial character at end");
+                }
+                final int b = bytes[i + 1];
+                final int c = bytes[i + 2];
+                if ((b & 0xC0) != 0x80 || (c & 0xC0) != 0x80) {
+                    throw new UTFDataFormatException("Malformed input around byte " + (i - offset));
+                }
+                chars[count++] = (char) (((a & 0x0F) << 12) | ((b & 0x3F) << 6) | (c & 0x3F));
+                i += 3;
+            } else {
+                throw new UTFDataFormatException("Malformed input around byte " + (i - offset));
+            }
+        }
+
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Gets the length of the modified UTF-8 encoding of the string.
+     *
+     * @param value The string
+     * @return The length, in bytes
+     */
+    static int encodedLength(final String value) {
+        int length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == 0 || c > 0x7F) {
+                length += c > 0x7FF ? 2 : 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encodes the string using modified UTF-8 into the given array, which
+     * must have room for its {@link #encodedLength(String) encoded length}.
+     *
+     * @param value The string
+     * @param ascii Whether the string is entirely ASCII, excluding NUL, as
+     *              it is if its encoded length is equal to its length
+     * @param bytes The array to encode into
+     * @param offset The offset to encode at
+     * @return The offset following the encoded string
+     */
+    @SuppressWarnings("deprecation")
+    static int encode(final String value, final boolean ascii, final byte[] bytes, int offset) {
+        if (ascii) {
+            // Copies the low byte of each character, which for ASCII is the encoding
+            value.getBytes(0, value.length(), bytes, offset);
+            return offset + value.length();
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c != 0 && c <= 0x7F) {
+                bytes[offset++] = (byte) c;
+            } else if (c > 0x7FF) {
+                bytes[offset++] = (byte) (0xE0 | (c >> 12));
+                bytes[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                bytes[offset++] = (byte) (0xC0 | (c >> 6));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return offset;
+    }
+
+    private ModifiedUtf8() {
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+/**
+ * A compression scheme for serialised NBT.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public interface NbtCompression {
+
+    /**
+     * No compression, with NBT stored as is.
+     */
+    NbtCompression NONE = new NbtCompression() {
+
+        @Override
+        public InputStream decompress(final InputStream in) {
+            return in;
+        }
+
+        @Override
+        public OutputStream compress(final OutputStream out) {
+            return out;
+        }
+
+    };
+
+    /**
+     * GZIP compression, as used by {@code level.dat} and player data, at
+     * the default level.
+     */
+    NbtCompression GZIP = gzip(Deflater.DEFAULT_COMPRESSION);
+
+    /**
+     * zlib compression, as used by chunks within region files, at the
+     * default level.
+     */
+    NbtCompression ZLIB = zlib(Deflater.DEFAULT_COMPRESSION);
+
+    /**
+     * LZ4 compression, trading ratio for far cheaper compression and
+     * decompression than either of the deflate based schemes.
+     *
+     * <p>The compressed blocks are in the standard LZ4 block format, though
+     * are framed simply by their lengths, so the stream is not compatible
+     * with the LZ4 frame format.</p>
+     */
+    NbtCompression LZ4 = new Lz4Compression();
+
+    /**
+     * Gets GZIP compression at the given level.
+     *
+     * @param level The level, from {@code 0} to {@code 9}, or
+     *              {@link Deflater#DEFAULT_COMPRESSION}
+     * @return The compression
+     */
+    static NbtCompression gzip(final int level) {
+        return new DeflateCompression(true, level);
+    }
+
+    /**
+     * Gets zlib compression at the given level.
+     *
+     * @param level The level, from {@code 0} to {@code 9}, or
+     *              {@link Deflater#DEFAULT_COMPRESSION}
+     * @return The compression
+     */
+    static NbtCompression zlib(final int level) {
+        return new DeflateCompression(false, level);
+    }
+
+    /**
+     * Wraps the given stream, decompressing what is read from it.
+     *
+     * <p>Closing the returned stream will close the given stream.</p>
+     *
+     * @param in The compressed input
+     * @return The decompressed input
+     * @throws IOException Should an IO error occur
+     */
+    InputStream decompress(final InputStream in) throws IOException;
+
+    /**
+     * Wraps the given stream, compressing what is written to it.
+     *
+     * <p>The returned stream must be closed for the compressed data to be
+     * completed, which will close the given stream.</p>
+     *
+     * @param out The compressed output
+     * @return The output to write uncompressed data to
+     * @throws IOException Should an IO error occur
+     */
+    OutputStream compress(final OutputStream out) throws IOException;
+
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+
+/**
+ * A binary layout of NBT, as used by an edition of the game on disk or
+ * on the network.
+ *
+ * <p>Formats other than those of Java Edition are read and written by
+ * wrapping a big-endian input or output, converting each value as it
+ * passes through - so tags may be transcoded between formats without an
+ * intermediate copy of their serialised form.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class NbtFormat {
+
+    /**
+     * The Java Edition format, as used on disk, which is big-endian and
+     * has a named root tag.
+     */
+    public static final NbtFormat JAVA = new NbtFormat(true, false, false);
+
+    /**
+     * The Java Edition network format, as used from 1.20.2, which is as
+     * {@link #JAVA} though has a nameless root tag.
+     */
+    public static final NbtFormat JAVA_NETWORK = new NbtFormat(false, false, false);
+
+    /**
+     * The Bedrock Edition format, as used on disk, which is little-endian
+     * and has UTF-8 strings.
+     */
+    public static final NbtFormat BEDROCK = new NbtFormat(true, true, false);
+
+    /**
+     * The Bedrock Edition network format, which is as {@link #BEDROCK}
+     * though encodes integers, longs and lengths as varints - zigzag
+     * encoded, with the exception of the lengths of strings.
+     */
+    public static final NbtFormat BEDROCK_NETWORK = new NbtFormat(true, true, true);
+
+    private final boolean rootNamed;
+    private final boolean littleEndian;
+    private final boolean varInt;
+
+    private NbtFormat(final boolean rootNamed, final boolean littleEndian, final boolean varInt) {
+        this.rootNamed = rootNamed;
+        this.littleEndian = littleEndian;
+        this.varInt = varInt;
+    }
+
+    /**
+     * Establishes whether the root tag is preceded by a name, as it is in
+     * every format but {@link #JAVA_NETWORK}.
+     *
+     * @return {@code true} if the root tag is named; {@code false} otherwise
+     */
+    public boolean isRootNamed() {
+        return this.rootNamed;
+    }
+
+    /**
+     * Wraps the given big-endian input, such that tags read from it are
+     * read in this format.
+     *
+     * @param input The input
+     * @return The input for this format, which may be the given input
+     */
+    public DataInput input(final DataInput input) {
+        return this.littleEndian ? new BedrockInput(input, this.varInt) : input;
+    }
+
+    /**
+     * Wraps the given big-endian output, such that tags written to it are
+     * written in this format.
+     *
+     * @param output The output
+     * @return The output for this format, which may be the given output
+     */
+    public DataOutput output(final DataOutput output) {
+        return this.littleEndian ? new BedrockOutput(output, this.varInt) : output;
+    }
+
+}
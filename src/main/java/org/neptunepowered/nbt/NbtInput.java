@@ -0,0 +1,114 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * A {@link DataInput} with additional operations for reading NBT, which
+ * {@link Tag tags} will make use of where their input supports them.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public interface NbtInput extends DataInput {
+
+    /**
+     * Reads the name of a tag within a compound.
+     *
+     * <p>The name is encoded as by {@link #readUTF()}, though the input may
+     * return a pooled instance rather than decoding it anew.</p>
+     *
+     * @return The name
+     * @throws IOException Should an IO error occur
+     * @see KeyPool
+     */
+    default String readKey() throws IOException {
+        return this.readUTF();
+    }
+
+    /**
+     * Gets the canonical instance of a tag just read from the input, where
+     * the input pools equal tags.
+     *
+     * @param tag The tag
+     * @return The canonical tag, which may be the given tag
+     * @see TagPool
+     */
+    default Tag canonicalize(final Tag tag) {
+        return tag;
+    }
+
+    /**
+     * Reads the length of an array or list, as by {@link #readInt()}, each
+     * element of which occupies at least the given number of bytes.
+     *
+     * <p>Inputs that know how many bytes remain to be read will reject
+     * lengths that couldn't fit within them, before anything is allocated
+     * for the elements.</p>
+     *
+     * @param width The least number of bytes occupied by each element
+     * @return The length
+     * @throws IOException Should an IO error occur, or the length be invalid
+     */
+    default int readLength(final int width) throws IOException {
+        final int length = this.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid length " + length + "!");
+        }
+        return length;
+    }
+
+    /**
+     * Reads integers into the given array, each as by {@link #readInt()}.
+     *
+     * @param values The array to read into
+     * @param offset The index of the first value to read
+     * @param length The number of values to read
+     * @throws IOException Should an IO error occur
+     */
+    default void readInts(final int[] values, final int offset, final int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = this.readInt();
+        }
+    }
+
+    /**
+     * Reads longs into the given array, each as by {@link #readLong()}.
+     *
+     * @param values The array to read into
+     * @param offset The index of the first value to read
+     * @param length The number of values to read
+     * @throws IOException Should an IO error occur
+     */
+    default void readLongs(final long[] values, final int offset, final int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = this.readLong();
+        }
+    }
+
+}
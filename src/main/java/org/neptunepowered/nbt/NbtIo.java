@@ -27,13 +27,32 @@
 
 import static org.neptunepowered.nbt.NbtConstants.TAG_COMPOUND;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
-import java.io.DataInputStream;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.zip.GZIPInputStream;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 /**
  * IO functions for NBT.
@@ -43,6 +62,20 @@
  */
 public final class NbtIo {
 
+    /**
+     * The initial size of the in-memory buffers used when writing
+     * compressed tags to paths, the size of which isn't known up front.
+     */
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    /**
+     * The default bound on the number of bytes being read, or read but not
+     * yet consumed, by {@link #readAll(Iterable, Executor, BiConsumer)}.
+     */
+    private static final long DEFAULT_IN_FLIGHT_BYTES = 64 * 1024 * 1024;
+
+    private static final int GZIP_MAGIC = 0x1F8B;
+
     /**
      * Reads a {@link CompoundTag compound tag}, compressed using GZIP, from a
      * {@link InputStream input stream}.
@@ -52,9 +85,21 @@ public final class NbtIo {
      * @throws IOException Should an IO error occur
      */
     public static CompoundTag readCompressedStream(final InputStream in) throws IOException {
-        try (final GZIPInputStream gin = new GZIPInputStream(in)) {
-            return readStream(gin);
-        }
+        return readCompressedStream(in, NbtCompression.GZIP);
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag}, compressed using the given
+     * {@link NbtCompression compression}, from a {@link InputStream input stream}.
+     *
+     * @param in The input
+     * @param compression The compression
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     */
+    public static CompoundTag readCompressedStream(final InputStream in, final NbtCompression compression)
+            throws IOException {
+        return readStream(compression.decompress(in));
     }
 
     /**
@@ -66,21 +111,74 @@ public static CompoundTag readCompressedStream(final InputStream in) throws IOEx
      * @throws IOException Should an IO error occur
      */
     public static CompoundTag readCompressedPath(final Path path) throws IOException {
+        return readCompressedPath(path, NbtCompression.GZIP);
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag}, compressed using the given
+     * {@link NbtCompression compression}, from a {@link Path path}.
+     *
+     * @param path The input path
+     * @param compression The compression
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     */
+    public static CompoundTag readCompressedPath(final Path path, final NbtCompression compression)
+            throws IOException {
         try (final InputStream in = Files.newInputStream(path)) {
-            return readCompressedStream(in);
+            return readCompressedStream(in, compression);
         }
     }
 
     /**
      * Reads a {@link CompoundTag compound tag} from a {@link InputStream input stream}.
      *
+     * <p>Tag names are pooled using the {@link KeyPool#shared() shared pool}.</p>
+     *
      * @param in The input
      * @return The root tag
      * @throws IOException Should an IO error occur
      */
     public static CompoundTag readStream(final InputStream in) throws IOException {
-        try (final DataInputStream din = new DataInputStream(in)) {
-            return read(din);
+        return readStream(in, KeyPool.shared());
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag} from a {@link InputStream input stream},
+     * pooling tag names using the given {@link KeyPool pool}.
+     *
+     * @param in The input
+     * @param pool The pool of names, or {@code null} to not pool names
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     */
+    public static CompoundTag readStream(final InputStream in, final KeyPool pool) throws IOException {
+        return readStream(in, pool, null);
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag} from a {@link InputStream input stream},
+     * pooling tag names using the given {@link KeyPool pool}, and sharing a
+     * single instance of equal compounds, lists and strings through the
+     * given {@link TagPool tag pool}.
+     *
+     * <p>Every tag within the root tag that is pooled will be frozen, so
+     * the tags are {@link CompoundTag#copy() copied} as they are accessed
+     * from the root tag for modification.</p>
+     *
+     * @param in The input
+     * @param pool The pool of names, or {@code null} to not pool names
+     * @param tags The pool of tags, or {@code null} to not pool tags
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     */
+    public static CompoundTag readStream(final InputStream in, final KeyPool pool, final TagPool tags)
+            throws IOException {
+        final byte[] buffer = IoCache.buffer();
+        try (final StreamInput input = new StreamInput(in, pool, tags, buffer)) {
+            return read(input);
+        } finally {
+            IoCache.release(buffer);
         }
     }
 
@@ -97,6 +195,288 @@ public static CompoundTag readPath(final Path path) throws IOException {
         }
     }
 
+    /**
+     * Reads {@link CompoundTag compound tags} from every {@link Path path},
+     * in parallel using the given {@link Executor executor}.
+     *
+     * @param paths The input paths
+     * @param executor The executor to read on
+     * @param consumer The consumer of each path and its root tag, or of
+     *     each chunk of a region file
+     * @throws IOException Should any path fail to be read
+     * @see #readAll(Iterable, Executor, long, BiConsumer, ChunkConsumer)
+     */
+    public static void readAll(final Iterable<? extends Path> paths, final Executor executor,
+            final BiConsumer<? super Path, ? super CompoundTag> consumer) throws IOException {
+        readAll(paths, executor, DEFAULT_IN_FLIGHT_BYTES, consumer);
+    }
+
+    /**
+     * Reads {@link CompoundTag compound tags} from every {@link Path path},
+     * in parallel using the given {@link Executor executor}, with each
+     * chunk of a region file handed to the consumer alongside the region's
+     * path.
+     *
+     * @param paths The input paths
+     * @param executor The executor to read on
+     * @param maxInFlightBytes The bound on the size of what is being read at once
+     * @param consumer The consumer of each path and its root tag, or of
+     *     each chunk of a region file
+     * @throws IOException Should any path fail to be read
+     * @see #readAll(Iterable, Executor, long, BiConsumer, ChunkConsumer)
+     */
+    public static void readAll(final Iterable<? extends Path> paths, final Executor executor, final long maxInFlightBytes,
+            final BiConsumer<? super Path, ? super CompoundTag> consumer) throws IOException {
+        readAll(paths, executor, maxInFlightBytes, consumer, (path, x, z, chunk) -> consumer.accept(path, chunk));
+    }
+
+    /**
+     * Reads {@link CompoundTag compound tags} from every {@link Path path},
+     * in parallel using the given {@link Executor executor}, such as a
+     * {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * <p>Each file is read into memory and parsed as a task on the executor,
+     * being decompressed should it be compressed using GZIP. Region files,
+     * named {@code .mca} or {@code .mcr}, are instead opened as a
+     * {@link RegionFile region}, with each of its chunks read as a task of
+     * its own, and handed to the chunk consumer with its coordinates. The
+     * region is closed once its last chunk has been read.</p>
+     *
+     * <p>Files and chunks are only submitted while the total size of what
+     * is in flight stays within the given bound, though a single file or
+     * chunk larger than the bound is still read, alone. Files and chunks
+     * are counted at their size on disk while being read, and once read,
+     * at the {@link Tag#estimatedHeapSize() estimated size} of their tag
+     * until it has been handed to the consumer.</p>
+     *
+     * <p>Tags are handed to the consumers as they complete, in no particular
+     * order, on the calling thread. Should any paths or chunks fail to be
+     * read, the rest are still read, and the failures thrown together once
+     * everything has been read. Should reading fail with an {@link Error},
+     * such as a {@link StackOverflowError} from deeply nested data, nothing
+     * further is read, and the error is rethrown on the calling thread once
+     * the reads in flight have completed.</p>
+     *
+     * <p>Likewise, should a consumer or the executor throw, the reads in
+     * flight are waited upon, and any open regions closed, before the
+     * exception is rethrown - so no reads remain in flight once this
+     * returns.</p>
+     *
+     * @param paths The input paths
+     * @param executor The executor to read on
+     * @param maxInFlightBytes The bound on the size of what is being read at once
+     * @param consumer The consumer of each path and its root tag
+     * @param chunkConsumer The consumer of each chunk of a region file
+     * @throws IOException Should any path or chunk fail to be read
+     */
+    public static void readAll(final Iterable<? extends Path> paths, final Executor executor, final long maxInFlightBytes,
+            final BiConsumer<? super Path, ? super CompoundTag> consumer, final ChunkConsumer chunkConsumer)
+            throws IOException {
+        final BlockingQueue<Loaded> completed = new LinkedBlockingQueue<>();
+        final Iterator<? extends Path> iterator = paths.iterator();
+        final AtomicLong inFlight = new AtomicLong();
+        final List<OpenRegion> regions = new ArrayList<>();
+        final List<IOException> failures = new ArrayList<>();
+        Error fatal = null;
+        int reading = 0;
+        boolean complete = false;
+
+        // The region whose chunks are being submitted, and the path to be
+        // submitted next, should it not fit within the bound
+        OpenRegion region = null;
+        Path next = null;
+        long nextSize = 0;
+        try {
+            while (true) {
+                // Submit as much as the bound allows, unless a read has failed fatally
+                while (fatal == null) {
+                    if (region != null) {
+                        final int index = region.next;
+                        if (index == RegionFile.CHUNKS) {
+                            // Every chunk has been submitted
+                            if (region.reading == 0) {
+                                region.file.close();
+                                regions.remove(region);
+                            }
+                            region = null;
+                            continue;
+                        }
+
+                        final int x = index % RegionFile.REGION_SIZE;
+                        final int z = index / RegionFile.REGION_SIZE;
+                        if (!region.file.hasChunk(x, z)) {
+                            region.next++;
+                            continue;
+                        }
+
+                        final long size = region.file.getAllocatedSize(x, z);
+                        if (reading > 0 && inFlight.get() + size > maxInFlightBytes) {
+                            break;
+                        }
+
+                        final OpenRegion current = region;
+                        inFlight.addAndGet(size);
+                        executor.execute(() -> completed.add(loadChunk(current, x, z, size, inFlight)));
+                        reading++;
+                        region.reading++;
+                        region.next++;
+                        continue;
+                    }
+
+                    if (next == null) {
+                        if (!iterator.hasNext()) {
+                            break;
+                        }
+                        next = iterator.next();
+                        try {
+                            if (isRegion(next)) {
+                                region = new OpenRegion(next, new RegionFile(next));
+                                regions.add(region);
+                                next = null;
+                                continue;
+                            }
+                            nextSize = Files.size(next);
+                        } catch (final IOException ex) {
+                            failures.add(new IOException("Failed to read " + next + "!", ex));
+                            next = null;
+                            continue;
+                        }
+                    }
+                    if (reading > 0 && inFlight.get() + nextSize > maxInFlightBytes) {
+                        break;
+                    }
+
+                    final Path path = next;
+                    final long size = nextSize;
+                    inFlight.addAndGet(size);
+                    executor.execute(() -> completed.add(load(path, size, inFlight)));
+                    reading++;
+                    next = null;
+                }
+
+                if (reading == 0) {
+                    break;
+                }
+
+                final Loaded loaded;
+                try {
+                    loaded = completed.take();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while reading NBT files!");
+                }
+                reading--;
+                inFlight.addAndGet(-loaded.size);
+
+                final OpenRegion from = loaded.region;
+                if (from != null && --from.reading == 0 && from != region) {
+                    // The last chunk of the region, which is no longer needed
+                    from.file.close();
+                    regions.remove(from);
+                }
+
+                if (loaded.failure == null) {
+                    if (from != null) {
+                        chunkConsumer.accept(from.path, loaded.x, loaded.z, loaded.tag);
+                    } else {
+                        consumer.accept(loaded.path, loaded.tag);
+                    }
+                } else if (loaded.failure instanceof Error) {
+                    if (fatal == null) {
+                        fatal = (Error) loaded.failure;
+                    } else {
+                        fatal.addSuppressed(loaded.failure);
+                    }
+                } else if (from != null) {
+                    failures.add(new IOException("Failed to read chunk " + loaded.x + ", " + loaded.z + " of "
+                            + loaded.path + "!", loaded.failure));
+                } else {
+                    failures.add(new IOException("Failed to read " + loaded.path + "!", loaded.failure));
+                }
+            }
+            complete = true;
+        } finally {
+            if (!complete) {
+                // Leaving early, so wait for the reads still in flight
+                try {
+                    for (; reading > 0; reading--) {
+                        completed.take();
+                    }
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            // Only regions whose chunks were left unread remain open, unless
+            // interrupted while their chunks were still being read
+            if (reading == 0) {
+                regions.forEach(open -> open.file.close());
+            }
+        }
+
+        if (fatal != null) {
+            failures.forEach(fatal::addSuppressed);
+            throw fatal;
+        }
+        if (failures.size() == 1) {
+            throw failures.get(0);
+        }
+        if (!failures.isEmpty()) {
+            final IOException ex = new IOException("Failed to read " + failures.size() + " files or chunks!");
+            failures.forEach(ex::addSuppressed);
+            throw ex;
+        }
+    }
+
+    private static Loaded load(final Path path, final long size, final AtomicLong inFlight) {
+        try {
+            final byte[] bytes = Files.readAllBytes(path);
+            final boolean compressed = bytes.length >= 2 && ((bytes[0] & 0xFF) << 8 | (bytes[1] & 0xFF)) == GZIP_MAGIC;
+            final CompoundTag tag = compressed ?
+                    readCompressedStream(new ByteArrayInputStream(bytes)) :
+                    read(ByteBuffer.wrap(bytes));
+            return new Loaded(path, null, 0, 0, charge(tag, size, inFlight), tag, null);
+        } catch (final Throwable ex) {
+            // Anything thrown must be handed back, else the reader waits forever
+            return new Loaded(path, null, 0, 0, size, null, ex);
+        }
+    }
+
+    private static Loaded loadChunk(final OpenRegion region, final int x, final int z, final long size,
+            final AtomicLong inFlight) {
+        try {
+            final CompoundTag tag = region.file.readChunk(x, z);
+            return new Loaded(region.path, region, x, z, charge(tag, size, inFlight), tag, null);
+        } catch (final Throwable ex) {
+            // Anything thrown must be handed back, else the reader waits forever
+            return new Loaded(region.path, region, x, z, size, null, ex);
+        }
+    }
+
+    /**
+     * Charges the given tag, once read, against the bytes in flight, in
+     * place of the size it was read from.
+     *
+     * @param tag The tag
+     * @param size The size the tag was read from
+     * @param inFlight The bytes in flight
+     * @return The size now charged
+     */
+    private static long charge(final CompoundTag tag, final long size, final AtomicLong inFlight) {
+        final long decoded = tag.estimatedHeapSize();
+        inFlight.addAndGet(decoded - size);
+        return decoded;
+    }
+
+    private static boolean isRegion(final Path path) {
+        final Path name = path.getFileName();
+        if (name == null) {
+            return false;
+        }
+        final String file = name.toString();
+        return file.endsWith(".mca") || file.endsWith(".mcr");
+    }
+
     /**
      * Reads a {@link CompoundTag compound tag} from the {@link DataInput input}.
      *
@@ -105,6 +485,142 @@ public static CompoundTag readPath(final Path path) throws IOException {
      * @throws IOException Should an IO error occur
      */
     public static CompoundTag read(final DataInput input) throws IOException {
+        return read(input, NbtFormat.JAVA);
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag}, in the given
+     * {@link NbtFormat format}, from the big-endian {@link DataInput input}.
+     *
+     * @param input The input
+     * @param format The format
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     */
+    public static CompoundTag read(final DataInput input, final NbtFormat format) throws IOException {
+        final DataInput in = format.input(input);
+        if (in.readByte() != TAG_COMPOUND) {
+            throw new RuntimeException("Root tag must be compound!");
+        }
+
+        if (format.isRootNamed()) {
+            // This is legacy from when tags were named
+            in.readUTF();
+        }
+
+        final CompoundTag tag = new CompoundTag();
+        tag.read(in);
+        return tag;
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag}, in the given
+     * {@link NbtFormat format}, from a {@link InputStream input stream}.
+     *
+     * <p>Tag names are pooled using the {@link KeyPool#shared() shared pool}.</p>
+     *
+     * @param in The input
+     * @param format The format
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     */
+    public static CompoundTag readStream(final InputStream in, final NbtFormat format) throws IOException {
+        final byte[] buffer = IoCache.buffer();
+        try (final StreamInput input = new StreamInput(in, KeyPool.shared(), null, buffer)) {
+            return read(input, format);
+        } finally {
+            IoCache.release(buffer);
+        }
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag}, in the given
+     * {@link NbtFormat format}, from the {@link ByteBuffer buffer}, starting
+     * at its current position.
+     *
+     * @param buffer The input buffer
+     * @param format The format
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     * @see #read(ByteBuffer)
+     */
+    public static CompoundTag read(final ByteBuffer buffer, final NbtFormat format) throws IOException {
+        final ByteBufferInput input = new ByteBufferInput(buffer, KeyPool.shared());
+        final CompoundTag tag = read(input, format);
+        buffer.position(input.position());
+        return tag;
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag} from the {@link ByteBuffer buffer},
+     * starting at its current position.
+     *
+     * <p>The buffer may be either heap or direct, and its position will be
+     * advanced past the root tag once it has been read. The byte order of
+     * the buffer is ignored, NBT is always read as big-endian.</p>
+     *
+     * <p>Tag names are pooled using the {@link KeyPool#shared() shared pool}.</p>
+     *
+     * @param buffer The input buffer
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     */
+    public static CompoundTag read(final ByteBuffer buffer) throws IOException {
+        return read(buffer, KeyPool.shared());
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag} from the {@link ByteBuffer buffer},
+     * pooling tag names using the given {@link KeyPool pool}.
+     *
+     * @param buffer The input buffer
+     * @param pool The pool of names, or {@code null} to not pool names
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     * @see #read(ByteBuffer)
+     */
+    public static CompoundTag read(final ByteBuffer buffer, final KeyPool pool) throws IOException {
+        return read(buffer, pool, null);
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag} from the {@link ByteBuffer buffer},
+     * pooling tag names using the given {@link KeyPool pool}, and sharing a
+     * single instance of equal compounds, lists and strings through the
+     * given {@link TagPool tag pool}.
+     *
+     * @param buffer The input buffer
+     * @param pool The pool of names, or {@code null} to not pool names
+     * @param tags The pool of tags, or {@code null} to not pool tags
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     * @see #readStream(InputStream, KeyPool, TagPool)
+     */
+    public static CompoundTag read(final ByteBuffer buffer, final KeyPool pool, final TagPool tags)
+            throws IOException {
+        final ByteBufferInput input = new ByteBufferInput(buffer, pool, tags);
+        final CompoundTag tag = read(input);
+        buffer.position(input.position());
+        return tag;
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag} lazily from the {@link ByteBuffer buffer},
+     * starting at its current position.
+     *
+     * <p>Compounds, lists and arrays are not decoded until they are first
+     * accessed, with the compound instead holding on to a view of their
+     * serialised form within the buffer. Should they never be accessed,
+     * they will be written back out byte-for-byte. Consequently, the content
+     * of the buffer must not be modified for as long as the tag is in use.</p>
+     *
+     * @param buffer The input buffer
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     * @see #read(ByteBuffer)
+     */
+    public static CompoundTag readLazy(final ByteBuffer buffer) throws IOException {
+        final ByteBufferInput input = new ByteBufferInput(buffer, KeyPool.shared());
         if (input.readByte() != TAG_COMPOUND) {
             throw new RuntimeException("Root tag must be compound!");
         }
@@ -113,11 +629,342 @@ public static CompoundTag read(final DataInput input) throws IOException {
         input.readUTF();
 
         final CompoundTag tag = new CompoundTag();
-        tag.read(input);
+        tag.readLazy(input);
+        buffer.position(input.position());
         return tag;
     }
 
+    /**
+     * Reads a {@link CompoundTag compound tag} from the {@link DataInput input},
+     * keeping only the tags within the given {@link NbtProjection projection}.
+     *
+     * <p>Tags outside of the projection are skipped over using their length
+     * prefixes where possible, and are never decoded.</p>
+     *
+     * @param input The input
+     * @param projection The projection
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     */
+    public static CompoundTag read(final DataInput input, final NbtProjection projection) throws IOException {
+        if (input.readByte() != TAG_COMPOUND) {
+            throw new RuntimeException("Root tag must be compound!");
+        }
+
+        // This is legacy from when tags were named
+        input.readUTF();
+
+        return projection.read(input);
+    }
+
+    /**
+     * Reads a {@link CompoundTag compound tag} from the {@link ByteBuffer buffer},
+     * keeping only the tags within the given {@link NbtProjection projection}.
+     *
+     * @param buffer The input buffer
+     * @param projection The projection
+     * @return The root tag
+     * @throws IOException Should an IO error occur
+     * @see #read(ByteBuffer)
+     * @see #read(DataInput, NbtProjection)
+     */
+    public static CompoundTag read(final ByteBuffer buffer, final NbtProjection projection) throws IOException {
+        final ByteBufferInput input = new ByteBufferInput(buffer, KeyPool.shared());
+        final CompoundTag tag = read(input, projection);
+        buffer.position(input.position());
+        return tag;
+    }
+
+    /**
+     * Writes a {@link CompoundTag compound tag}, compressed using GZIP, to a
+     * {@link OutputStream output stream}.
+     *
+     * <p>The output stream will be closed once the tag has been written.</p>
+     *
+     * @param tag The root tag
+     * @param out The output
+     * @throws IOException Should an IO error occur
+     */
+    public static void writeCompressedStream(final CompoundTag tag, final OutputStream out) throws IOException {
+        writeCompressedStream(tag, out, NbtCompression.GZIP);
+    }
+
+    /**
+     * Writes a {@link CompoundTag compound tag}, compressed using the given
+     * {@link NbtCompression compression}, to a {@link OutputStream output stream}.
+     *
+     * <p>The output stream will be closed once the tag has been written.</p>
+     *
+     * @param tag The root tag
+     * @param out The output
+     * @param compression The compression
+     * @throws IOException Should an IO error occur
+     */
+    public static void writeCompressedStream(final CompoundTag tag, final OutputStream out,
+            final NbtCompression compression) throws IOException {
+        writeStream(tag, compression.compress(out));
+    }
+
+    /**
+     * Writes a {@link CompoundTag compound tag}, compressed using GZIP, to a
+     * {@link Path path}.
+     *
+     * <p>The file is replaced atomically, see {@link #writePath(CompoundTag, Path)}.</p>
+     *
+     * @param tag The root tag
+     * @param path The output path
+     * @throws IOException Should an IO error occur
+     */
+    public static void writeCompressedPath(final CompoundTag tag, final Path path) throws IOException {
+        writeCompressedPath(tag, path, NbtCompression.GZIP);
+    }
+
+    /**
+     * Writes a {@link CompoundTag compound tag}, compressed using the given
+     * {@link NbtCompression compression}, to a {@link Path path}.
+     *
+     * <p>The file is replaced atomically, see {@link #writePath(CompoundTag, Path)}.</p>
+     *
+     * @param tag The root tag
+     * @param path The output path
+     * @param compression The compression
+     * @throws IOException Should an IO error occur
+     */
+    public static void writeCompressedPath(final CompoundTag tag, final Path path, final NbtCompression compression)
+            throws IOException {
+        final Buffer buffer = new Buffer();
+        writeCompressedStream(tag, buffer, compression);
+        writeAtomically(path, buffer.toByteBuffer());
+    }
+
+    /**
+     * Writes a {@link CompoundTag compound tag} to a {@link OutputStream output stream}.
+     *
+     * <p>The output stream will be closed once the tag has been written.</p>
+     *
+     * @param tag The root tag
+     * @param out The output
+     * @throws IOException Should an IO error occur
+     */
+    public static void writeStream(final CompoundTag tag, final OutputStream out) throws IOException {
+        final byte[] buffer = IoCache.buffer();
+        try (final StreamOutput output = new StreamOutput(out, buffer)) {
+            write(tag, output);
+        } finally {
+            IoCache.release(buffer);
+        }
+    }
+
+    /**
+     * Writes a {@link CompoundTag compound tag} to a {@link Path path}.
+     *
+     * <p>The tag is first written to a uniquely named temporary file
+     * alongside the target, which is synced to disk and then moved over
+     * the target. Should the write fail, the existing file is left
+     * untouched, and the temporary file removed. The permissions of an
+     * existing file are kept, though new files are created readable only
+     * by their owner, as with {@link Files#createTempFile}.</p>
+     *
+     * @param tag The root tag
+     * @param path The output path
+     * @throws IOException Should an IO error occur
+     */
+    public static void writePath(final CompoundTag tag, final Path path) throws IOException {
+        final Buffer buffer = new Buffer(serializedSize(tag));
+        writeStream(tag, buffer);
+        writeAtomically(path, buffer.toByteBuffer());
+    }
+
+    /**
+     * Writes a {@link CompoundTag compound tag} to a {@link WritableByteChannel channel},
+     * such as a {@link FileChannel}.
+     *
+     * <p>The tag is serialised in memory, and then handed to the channel in
+     * as few writes as the channel allows. The channel is left open.</p>
+     *
+     * @param tag The root tag
+     * @param channel The output channel
+     * @throws IOException Should an IO error occur
+     */
+    public static void writeChannel(final CompoundTag tag, final WritableByteChannel channel) throws IOException {
+        final Buffer buffer = new Buffer(serializedSize(tag));
+        writeStream(tag, buffer);
+        writeFully(channel, buffer.toByteBuffer());
+    }
+
+    /**
+     * Writes a {@link CompoundTag compound tag} to the {@link DataOutput output}.
+     *
+     * @param tag The root tag
+     * @param output The output
+     * @throws IOException Should an IO error occur
+     */
+    public static void write(final CompoundTag tag, final DataOutput output) throws IOException {
+        write(tag, output, NbtFormat.JAVA);
+    }
+
+    /**
+     * Writes a {@link CompoundTag compound tag}, in the given
+     * {@link NbtFormat format}, to the big-endian {@link DataOutput output}.
+     *
+     * @param tag The root tag
+     * @param output The output
+     * @param format The format
+     * @throws IOException Should an IO error occur
+     */
+    public static void write(final CompoundTag tag, final DataOutput output, final NbtFormat format) throws IOException {
+        final DataOutput out = format.output(output);
+        out.writeByte(TAG_COMPOUND);
+
+        if (format.isRootNamed()) {
+            // This is legacy from when tags were named
+            out.writeUTF("");
+        }
+
+        tag.write(out);
+    }
+
+    /**
+     * Writes a {@link CompoundTag compound tag}, in the given
+     * {@link NbtFormat format}, to a {@link OutputStream output stream}.
+     *
+     * <p>The output stream will be closed once the tag has been written.</p>
+     *
+     * @param tag The root tag
+     * @param out The output
+     * @param format The format
+     * @throws IOException Should an IO error occur
+     */
+    public static void writeStream(final CompoundTag tag, final OutputStream out, final NbtFormat format)
+            throws IOException {
+        final byte[] buffer = IoCache.buffer();
+        try (final StreamOutput output = new StreamOutput(out, buffer)) {
+            write(tag, output, format);
+        } finally {
+            IoCache.release(buffer);
+        }
+    }
+
+    /**
+     * Gets the size of a {@link CompoundTag compound tag}, as it would be
+     * written as the root tag by {@link #write(CompoundTag, DataOutput)},
+     * in the {@link NbtFormat#JAVA Java format}, without writing it.
+     *
+     * @param tag The root tag
+     * @return The size, in bytes
+     * @see Tag#serializedSize()
+     */
+    public static int serializedSize(final CompoundTag tag) {
+        // The type and empty name of the root tag
+        return 3 + tag.serializedSize();
+    }
+
+    private static void writeAtomically(final Path path, final ByteBuffer data) throws IOException {
+        // A unique temporary file, so concurrent writes to the same path can't
+        // clobber one another part way through
+        final Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            // The temporary file is only accessible to its owner, so take on the
+            // permissions of the file being replaced
+            final PosixFileAttributeView view = Files.getFileAttributeView(path, PosixFileAttributeView.class);
+            if (view != null && Files.exists(path)) {
+                Files.setPosixFilePermissions(temp, view.readAttributes().permissions());
+            }
+
+            try (final FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeFully(channel, data);
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException ex) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException | RuntimeException | Error ex) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (final IOException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        }
+    }
+
+    private static void writeFully(final WritableByteChannel channel, final ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
     private NbtIo() {
     }
 
+    /**
+     * A region being read by {@link #readAll}, which remains open until
+     * every one of its chunks has been read.
+     */
+    private static final class OpenRegion {
+
+        final Path path;
+        final RegionFile file;
+        // The index of the next chunk to be submitted
+        int next;
+        // The number of chunks being read
+        int reading;
+
+        OpenRegion(final Path path, final RegionFile file) {
+            this.path = path;
+            this.file = file;
+        }
+
+    }
+
+    /**
+     * The outcome of reading a single path, or a chunk of a region, for
+     * {@link #readAll}.
+     */
+    private static final class Loaded {
+
+        final Path path;
+        final OpenRegion region;
+        final int x;
+        final int z;
+        // The bytes charged against the bound
+        final long size;
+        final CompoundTag tag;
+        final Throwable failure;
+
+        Loaded(final Path path, final OpenRegion region, final int x, final int z, final long size,
+                final CompoundTag tag, final Throwable failure) {
+            this.path = path;
+            this.region = region;
+            this.x = x;
+            this.z = z;
+            this.size = size;
+            this.tag = tag;
+            this.failure = failure;
+        }
+
+    }
+
+    /**
+     * An in-memory output, exposing its contents without copying.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer() {
+            super(BUFFER_SIZE);
+        }
+
+        Buffer(final int size) {
+            super(size);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(this.buf, 0, this.count);
+        }
+
+    }
+
 }
@@ -0,0 +1,68 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A {@link DataOutput} with additional operations for writing NBT, which
+ * {@link Tag tags} will make use of where their output supports them.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public interface NbtOutput extends DataOutput {
+
+    /**
+     * Writes integers from the given array, each as by {@link #writeInt(int)}.
+     *
+     * @param values The array to write from
+     * @param offset The index of the first value to write
+     * @param length The number of values to write
+     * @throws IOException Should an IO error occur
+     */
+    default void writeInts(final int[] values, final int offset, final int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            this.writeInt(values[i]);
+        }
+    }
+
+    /**
+     * Writes longs from the given array, each as by {@link #writeLong(long)}.
+     *
+     * @param values The array to write from
+     * @param offset The index of the first value to write
+     * @param length The number of values to write
+     * @throws IOException Should an IO error occur
+     */
+    default void writeLongs(final long[] values, final int offset, final int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            this.writeLong(values[i]);
+        }
+    }
+
+}
@@ -0,0 +1,530 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.neptunepowered.nbt.NbtConstants.TAG_BYTE_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_COMPOUND;
+import static org.neptunepowered.nbt.NbtConstants.TAG_END;
+import static org.neptunepowered.nbt.NbtConstants.TAG_INT_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LIST;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LONG_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.create;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A binary patch, transforming one {@link CompoundTag compound} into
+ * another, such that only what has changed between the two need be sent
+ * or stored.
+ *
+ * <p>Patches are {@link #diff(CompoundTag, CompoundTag) created} by
+ * comparing two compounds, descending into the compounds and lists within
+ * them, and are made up of the tags added or replaced, the tags removed
+ * and the ranges of arrays changed. Frozen compounds and lists held by
+ * both compounds, as is the case for the untouched tags of a
+ * {@link CompoundTag#with(String, Tag) modified} frozen compound, are
+ * skipped without being compared.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class NbtPatch {
+
+    private static final byte OP_END = 0;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_COMPOUND = 3;
+    private static final byte OP_LIST = 4;
+    private static final byte OP_ARRAY = 5;
+
+    /**
+     * The size of the offset and length preceding each changed range of an
+     * array, and so the most unchanged bytes worth including in a range to
+     * join it to the next.
+     */
+    private static final int RANGE_HEADER_SIZE = 8;
+
+    /**
+     * Creates a patch, transforming the first compound into the second.
+     *
+     * @param from The original compound
+     * @param to The changed compound
+     * @return The patch
+     */
+    public static NbtPatch diff(final CompoundTag from, final CompoundTag to) {
+        final Buffer buffer = new Buffer();
+        final DataOutputStream output = new DataOutputStream(buffer);
+        try {
+            diffCompound(output, buffer, from, to);
+            output.writeByte(OP_END);
+        } catch (final IOException ex) {
+            // Writing to memory can't fail
+            throw new UncheckedIOException(ex);
+        }
+        return new NbtPatch(buffer.toByteArray());
+    }
+
+    /**
+     * Reads a patch, as {@link #write(DataOutput) written}, from the given
+     * input.
+     *
+     * @param input The input
+     * @return The patch
+     * @throws IOException Should an IO error occur
+     */
+    public static NbtPatch read(final DataInput input) throws IOException {
+        final int length = input.readInt();
+        if (length < 1) {
+            throw new IOException("Invalid patch length " + length + "!");
+        }
+        final byte[] data = new byte[length];
+        input.readFully(data);
+        return new NbtPatch(data);
+    }
+
+    private final byte[] data;
+
+    private NbtPatch(final byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Establishes whether the patch makes no changes.
+     *
+     * @return {@code true} if the patch is empty; {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return this.data.length == 1;
+    }
+
+    /**
+     * Gets the size of the patch, in bytes, excluding the length written
+     * before it.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.data.length;
+    }
+
+    /**
+     * Applies the patch to the given compound, which should be equal to the
+     * compound the patch was created from.
+     *
+     * <p>The compound, and the compounds and lists within it that are
+     * changed, must be modifiable.</p>
+     *
+     * @param compound The compound
+     * @throws IOException Should the patch be corrupt
+     * @throws IllegalArgumentException If the patch does not apply to the
+     *                                  compound
+     */
+    public void apply(final CompoundTag compound) throws IOException {
+        final ByteBufferInput input = new ByteBufferInput(ByteBuffer.wrap(this.data));
+        applyCompound(input, compound);
+        if (input.position() != this.data.length) {
+            throw new IOException("Trailing data after patch!");
+        }
+    }
+
+    /**
+     * Writes the patch, preceded by its length, to the given output.
+     *
+     * @param output The output
+     * @throws IOException Should an IO error occur
+     */
+    public void write(final DataOutput output) throws IOException {
+        output.writeInt(this.data.length);
+        output.write(this.data);
+    }
+
+    private static void diffCompound(final DataOutputStream output, final Buffer buffer,
+            final CompoundTag from, final CompoundTag to) throws IOException {
+        for (final String name : from.keys()) {
+            if (to.lookup(name) == null) {
+                output.writeByte(OP_REMOVE);
+                output.writeUTF(name);
+            }
+        }
+        for (final String name : to.keys()) {
+            final Tag previous = from.lookup(name);
+            if (previous == null) {
+                writePut(output, name, 0, LazyTag.resolve(to.lookup(name)));
+            } else {
+                diffTag(output, buffer, name, 0, previous, to.lookup(name));
+            }
+        }
+    }
+
+    private static void diffList(final DataOutputStream output, final Buffer buffer,
+            final ListTag from, final ListTag to) throws IOException {
+        for (int i = 0; i < to.size(); i++) {
+            diffTag(output, buffer, null, i, from.lookup(i), to.lookup(i));
+        }
+    }
+
+    /**
+     * Writes the operations transforming one tag into another, stored
+     * under the given name of a compound or index of a list.
+     *
+     * @param output The output
+     * @param buffer The buffer being written to
+     * @param name The name, or {@code null} for an element of a list
+     * @param index The index, for an element of a list
+     * @param from The original tag
+     * @param to The changed tag
+     * @throws IOException Should an IO error occur
+     */
+    private static void diffTag(final DataOutputStream output, final Buffer buffer, final String name, final int index,
+            final Tag from, final Tag to) throws IOException {
+        if (from == to && CompoundTag.isFrozen(from)) {
+            // Frozen, so is known to be unchanged without being compared
+            return;
+        }
+        final Tag previous = LazyTag.resolve(from);
+        final Tag next = LazyTag.resolve(to);
+        if (previous.getId() != next.getId()) {
+            writePut(output, name, index, next);
+            return;
+        }
+
+        switch (next.getId()) {
+            case TAG_COMPOUND: {
+                final int start = buffer.size();
+                output.writeByte(OP_COMPOUND);
+                writeKey(output, name, index);
+                final int body = buffer.size();
+                diffCompound(output, buffer, (CompoundTag) previous, (CompoundTag) next);
+                if (buffer.size() == body) {
+                    buffer.truncate(start);
+                } else {
+                    output.writeByte(OP_END);
+                }
+                break;
+            }
+            case TAG_LIST: {
+                final ListTag previousList = (ListTag) previous;
+                final ListTag nextList = (ListTag) next;
+                if (previousList.getElementType() != nextList.getElementType() || previousList.size() != nextList.size()) {
+                    writePut(output, name, index, next);
+                    break;
+                }
+
+                final int start = buffer.size();
+                output.writeByte(OP_LIST);
+                writeKey(output, name, index);
+                final int body = buffer.size();
+                diffList(output, buffer, previousList, nextList);
+                if (buffer.size() == body) {
+                    buffer.truncate(start);
+                } else {
+                    output.writeByte(OP_END);
+                }
+                break;
+            }
+            case TAG_BYTE_ARRAY:
+            case TAG_INT_ARRAY:
+            case TAG_LONG_ARRAY:
+                diffArray(output, name, index, previous, next);
+                break;
+            default:
+                if (!previous.equals(next)) {
+                    writePut(output, name, index, next);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Writes the ranges that differ between two arrays, or the whole of
+     * the changed array should that be smaller.
+     */
+    private static void diffArray(final DataOutputStream output, final String name, final int index,
+            final Tag from, final Tag to) throws IOException {
+        final byte type = to.getId();
+        final Object previous = arrayValue(from);
+        final Object next = arrayValue(to);
+        final int length = arrayLength(next);
+        if (arrayLength(previous) != length) {
+            writePut(output, name, index, to);
+            return;
+        }
+        if (type == TAG_BYTE_ARRAY ? Arrays.equals((byte[]) previous, (byte[]) next)
+                : type == TAG_INT_ARRAY ? Arrays.equals((int[]) previous, (int[]) next)
+                : Arrays.equals((long[]) previous, (long[]) next)) {
+            return;
+        }
+
+        final int width = type == TAG_BYTE_ARRAY ? 1 : type == TAG_INT_ARRAY ? 4 : 8;
+        final int maxGap = RANGE_HEADER_SIZE / width;
+
+        // Ranges are held as pairs of start (inclusive) and end (exclusive)
+        int[] ranges = new int[8];
+        int count = 0;
+        int patchSize = 0;
+        int i = 0;
+        while (i < length) {
+            if (!differs(previous, next, i)) {
+                i++;
+                continue;
+            }
+
+            final int start = i;
+            int end = i + 1;
+            i = end;
+            while (i < length && i - end <= maxGap) {
+                if (differs(previous, next, i)) {
+                    end = i + 1;
+                }
+                i++;
+            }
+
+            if (count * 2 == ranges.length) {
+                ranges = Arrays.copyOf(ranges, ranges.length * 2);
+            }
+            ranges[count * 2] = start;
+            ranges[count * 2 + 1] = end;
+            count++;
+            patchSize += RANGE_HEADER_SIZE + (end - start) * width;
+            i = end;
+        }
+
+        if (count == 0) {
+            return;
+        }
+        if (patchSize >= length * width) {
+            writePut(output, name, index, to);
+            return;
+        }
+
+        output.writeByte(OP_ARRAY);
+        writeKey(output, name, index);
+        output.writeByte(type);
+        output.writeInt(count);
+        for (int range = 0; range < count; range++) {
+            final int start = ranges[range * 2];
+            final int end = ranges[range * 2 + 1];
+            output.writeInt(start);
+            output.writeInt(end - start);
+            switch (type) {
+                case TAG_BYTE_ARRAY:
+                    output.write((byte[]) next, start, end - start);
+                    break;
+                case TAG_INT_ARRAY:
+                    for (int j = start; j < end; j++) {
+                        output.writeInt(((int[]) next)[j]);
+                    }
+                    break;
+                default:
+                    for (int j = start; j < end; j++) {
+                        output.writeLong(((long[]) next)[j]);
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static void writePut(final DataOutputStream output, final String name, final int index, final Tag tag)
+            throws IOException {
+        output.writeByte(OP_PUT);
+        writeKey(output, name, index);
+        output.writeByte(tag.getId());
+        tag.write(output);
+    }
+
+    private static void writeKey(final DataOutputStream output, final String name, final int index) throws IOException {
+        if (name != null) {
+            output.writeUTF(name);
+        } else {
+            output.writeInt(index);
+        }
+    }
+
+    private static void applyCompound(final ByteBufferInput input, final CompoundTag compound) throws IOException {
+        byte op;
+        while ((op = input.readByte()) != OP_END) {
+            final String name = input.readKey();
+            switch (op) {
+                case OP_PUT:
+                    compound.put(name, readTag(input));
+                    break;
+                case OP_REMOVE:
+                    compound.remove(name);
+                    break;
+                case OP_COMPOUND:
+                    applyCompound(input, (CompoundTag) expect(compound.get(name), TAG_COMPOUND));
+                    break;
+                case OP_LIST:
+                    applyList(input, (ListTag) expect(compound.get(name), TAG_LIST));
+                    break;
+                case OP_ARRAY:
+                    compound.put(name, applyArray(input, compound.peek(name)));
+                    break;
+                default:
+                    throw new IOException("Unknown patch operation " + op + "!");
+            }
+        }
+    }
+
+    private static void applyList(final ByteBufferInput input, final ListTag list) throws IOException {
+        byte op;
+        while ((op = input.readByte()) != OP_END) {
+            final int index = input.readInt();
+            if (index < 0 || index >= list.size()) {
+                throw new IllegalArgumentException("Patch does not apply, index " + index + " is out of range!");
+            }
+            switch (op) {
+                case OP_PUT:
+                    list.set(index, readTag(input));
+                    break;
+                case OP_COMPOUND:
+                    applyCompound(input, (CompoundTag) expect(list.get(index), TAG_COMPOUND));
+                    break;
+                case OP_LIST:
+                    applyList(input, (ListTag) expect(list.get(index), TAG_LIST));
+                    break;
+                case OP_ARRAY:
+                    list.set(index, applyArray(input, list.peek(index)));
+                    break;
+                default:
+                    throw new IOException("Unknown patch operation " + op + " within list!");
+            }
+        }
+    }
+
+    /**
+     * Applies changed ranges to a copy of the given array tag, leaving the
+     * original untouched as it may be shared.
+     */
+    private static Tag applyArray(final ByteBufferInput input, final Tag tag) throws IOException {
+        final byte type = input.readByte();
+        if (type != TAG_BYTE_ARRAY && type != TAG_INT_ARRAY && type != TAG_LONG_ARRAY) {
+            throw new IOException("Unknown array type " + type + "!");
+        }
+        expect(tag, type);
+        final Object values = arrayValue(tag);
+        final int length = arrayLength(values);
+        final Tag patched;
+        switch (type) {
+            case TAG_BYTE_ARRAY:
+                patched = new ByteArrayTag(((byte[]) values).clone());
+                break;
+            case TAG_INT_ARRAY:
+                patched = new IntArrayTag(((int[]) values).clone());
+                break;
+            default:
+                patched = new LongArrayTag(((long[]) values).clone());
+                break;
+        }
+
+        final Object target = arrayValue(patched);
+        for (int range = input.readInt(); range > 0; range--) {
+            final int start = input.readInt();
+            final int count = input.readInt();
+            if (start < 0 || count < 0 || start > length - count) {
+                throw new IllegalArgumentException("Patch does not apply, range " + start + "+" + count + " is out of bounds!");
+            }
+            switch (type) {
+                case TAG_BYTE_ARRAY:
+                    input.readFully((byte[]) target, start, count);
+                    break;
+                case TAG_INT_ARRAY:
+                    for (int i = start; i < start + count; i++) {
+                        ((int[]) target)[i] = input.readInt();
+                    }
+                    break;
+                default:
+                    for (int i = start; i < start + count; i++) {
+                        ((long[]) target)[i] = input.readLong();
+                    }
+                    break;
+            }
+        }
+        return patched;
+    }
+
+    private static Tag readTag(final ByteBufferInput input) throws IOException {
+        final byte type = input.readByte();
+        if (type <= TAG_END || type > TAG_LONG_ARRAY) {
+            throw new IOException("Unknown tag type " + type + "!");
+        }
+        final Tag tag = create(type);
+        tag.read(input);
+        return tag;
+    }
+
+    private static Tag expect(final Tag tag, final byte type) {
+        if (tag == null || tag.getId() != type) {
+            throw new IllegalArgumentException("Patch does not apply, expected tag of type " + type + "!");
+        }
+        return tag;
+    }
+
+    private static Object arrayValue(final Tag tag) {
+        switch (tag.getId()) {
+            case TAG_BYTE_ARRAY: return ((ByteArrayTag) tag).getValue();
+            case TAG_INT_ARRAY: return ((IntArrayTag) tag).getValue();
+            default: return ((LongArrayTag) tag).getValue();
+        }
+    }
+
+    private static int arrayLength(final Object values) {
+        if (values instanceof byte[]) {
+            return ((byte[]) values).length;
+        }
+        return values instanceof int[] ? ((int[]) values).length : ((long[]) values).length;
+    }
+
+    private static boolean differs(final Object a, final Object b, final int index) {
+        if (a instanceof byte[]) {
+            return ((byte[]) a)[index] != ((byte[]) b)[index];
+        }
+        if (a instanceof int[]) {
+            return ((int[]) a)[index] != ((int[]) b)[index];
+        }
+        return ((long[]) a)[index] != ((long[]) b)[index];
+    }
+
+    /**
+     * A {@link ByteArrayOutputStream} that may be truncated, to discard the
+     * operations of an unchanged compound or list.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        void truncate(final int size) {
+            this.count = size;
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.neptunepowered.nbt.NbtConstants.TAG_COMPOUND;
+import static org.neptunepowered.nbt.NbtConstants.TAG_END;
+import static org.neptunepowered.nbt.NbtConstants.create;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A projection of NBT data, describing the paths of the tags that should
+ * be read - with everything else being skipped over, without being decoded.
+ *
+ * <p>A path names a tag through the compounds that enclose it, from the
+ * root. Should a path end on a compound or list, the whole of that tag
+ * is read.</p>
+ *
+ * @author Jamie Mansfield
+ * @see NbtIo#read(DataInput, NbtProjection)
+ * @since 0.1.0
+ */
+public final class NbtProjection {
+
+    /**
+     * Creates a projection of the given paths, each of which has its
+     * names separated by dots - for example {@code Level.xPos}.
+     *
+     * @param paths The paths
+     * @return The projection
+     */
+    public static NbtProjection of(final String... paths) {
+        final NbtProjection projection = new NbtProjection();
+        for (final String path : paths) {
+            projection.include(path.split("\\."));
+        }
+        return projection;
+    }
+
+    private final Map<String, NbtProjection> children = new HashMap<>();
+    private boolean whole;
+
+    /**
+     * Includes the given path in the projection, with each element being
+     * the name of a tag within the previous.
+     *
+     * <p>This is useful should names contain dots themselves.</p>
+     *
+     * @param path The path
+     * @return This projection, for chaining
+     */
+    public NbtProjection include(final String... path) {
+        NbtProjection node = this;
+        for (final String name : path) {
+            if (node.whole) {
+                return this;
+            }
+            node = node.children.computeIfAbsent(name, key -> new NbtProjection());
+        }
+        node.whole = true;
+        node.children.clear();
+        return this;
+    }
+
+    /**
+     * Reads the payload of a compound tag, keeping only the tags within
+     * this projection.
+     *
+     * @param input The input
+     * @return The compound tag
+     * @throws IOException Should an IO error occur
+     */
+    CompoundTag read(final DataInput input) throws IOException {
+        final CompoundTag compound = new CompoundTag();
+
+        byte type;
+        while ((type = input.readByte()) != TAG_END) {
+            final String name = CompoundTag.readName(input);
+            final NbtProjection child = this.children.get(name);
+
+            if (child == null) {
+                NbtReader.skip(input, type);
+            } else if (child.whole) {
+                final Tag tag = create(type);
+                tag.read(input);
+                compound.put(name, tag);
+            } else if (type == TAG_COMPOUND) {
+                compound.put(name, child.read(input));
+            } else {
+                // The path continues, but this tag can't contain any others
+                NbtReader.skip(input, type);
+            }
+        }
+
+        return compound;
+    }
+
+}
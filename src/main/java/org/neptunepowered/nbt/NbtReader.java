@@ -0,0 +1,270 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.neptunepowered.nbt.NbtConstants.TAG_BYTE;
+import static org.neptunepowered.nbt.NbtConstants.TAG_BYTE_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_COMPOUND;
+import static org.neptunepowered.nbt.NbtConstants.TAG_DOUBLE;
+import static org.neptunepowered.nbt.NbtConstants.TAG_END;
+import static org.neptunepowered.nbt.NbtConstants.TAG_FLOAT;
+import static org.neptunepowered.nbt.NbtConstants.TAG_INT;
+import static org.neptunepowered.nbt.NbtConstants.TAG_INT_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LIST;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LONG;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LONG_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_SHORT;
+import static org.neptunepowered.nbt.NbtConstants.TAG_STRING;
+import static org.neptunepowered.nbt.NbtConstants.create;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A streaming reader for NBT, pushing each tag to a {@link NbtVisitor visitor}
+ * as it is read, rather than building a tree of {@link Tag tags}.
+ *
+ * <p>Memory use is bounded by the largest single value (string or array),
+ * and the depth of the data, rather than by the size of the data as a
+ * whole.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class NbtReader {
+
+    /**
+     * Reads the root compound tag from the {@link DataInput input}, passing
+     * its contents to the given {@link NbtVisitor visitor}.
+     *
+     * <p>The root compound is visited with its legacy name, which is
+     * typically empty.</p>
+     *
+     * @param input The input
+     * @param visitor The visitor
+     * @throws IOException Should an IO error occur
+     */
+    public static void read(final DataInput input, final NbtVisitor visitor) throws IOException {
+        if (input.readByte() != TAG_COMPOUND) {
+            throw new RuntimeException("Root tag must be compound!");
+        }
+
+        readValue(input, TAG_COMPOUND, input.readUTF(), visitor);
+    }
+
+    /**
+     * Reads the root compound tag from the {@link ByteBuffer buffer}, passing
+     * its contents to the given {@link NbtVisitor visitor}.
+     *
+     * <p>The buffer's position will be advanced past the root tag once it
+     * has been read.</p>
+     *
+     * @param buffer The input buffer
+     * @param visitor The visitor
+     * @throws IOException Should an IO error occur
+     * @see NbtIo#read(ByteBuffer)
+     */
+    public static void read(final ByteBuffer buffer, final NbtVisitor visitor) throws IOException {
+        final ByteBufferInput input = new ByteBufferInput(buffer, KeyPool.shared());
+        read(input, visitor);
+        buffer.position(input.position());
+    }
+
+    /**
+     * Skips over the payload of a tag of the given type, without
+     * decoding it.
+     *
+     * <p>Strings and arrays are skipped using their length prefixes, as
+     * are lists of fixed-size values, whereas compounds and other lists
+     * are skipped recursively.</p>
+     *
+     * @param input The input
+     * @param type The tag type
+     * @throws IOException Should an IO error occur
+     */
+    public static void skip(final DataInput input, final byte type) throws IOException {
+        if (input instanceof BedrockInput && ((BedrockInput) input).isVarInt()) {
+            // Lengths and values vary in size, so the tag must be read to be skipped
+            create(type).read(input);
+            return;
+        }
+
+        switch (type) {
+            case TAG_END:
+                break;
+            case TAG_BYTE:
+            case TAG_SHORT:
+            case TAG_INT:
+            case TAG_LONG:
+            case TAG_FLOAT:
+            case TAG_DOUBLE:
+                skipFully(input, sizeOf(type));
+                break;
+            case TAG_BYTE_ARRAY:
+                skipFully(input, input.readInt());
+                break;
+            case TAG_STRING:
+                skipFully(input, input.readUnsignedShort());
+                break;
+            case TAG_LIST: {
+                final byte elementType = input.readByte();
+                final int length = input.readInt();
+                final int size = sizeOf(elementType);
+                if (size >= 0) {
+                    skipFully(input, (long) length * size);
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        skip(input, elementType);
+                    }
+                }
+                break;
+            }
+            case TAG_COMPOUND: {
+                byte childType;
+                while ((childType = input.readByte()) != TAG_END) {
+                    skipFully(input, input.readUnsignedShort());
+                    skip(input, childType);
+                }
+                break;
+            }
+            case TAG_INT_ARRAY:
+                skipFully(input, (long) input.readInt() * Integer.BYTES);
+                break;
+            case TAG_LONG_ARRAY:
+                skipFully(input, (long) input.readInt() * Long.BYTES);
+                break;
+            default:
+                throw new RuntimeException("Unknown Tag type " + type + "!");
+        }
+    }
+
+    /**
+     * Gets the size of the payload of tags of the given type, should
+     * it be fixed.
+     *
+     * @param type The tag type
+     * @return The size, in bytes, or {@code -1} if it varies
+     */
+    private static int sizeOf(final byte type) {
+        switch (type) {
+            case TAG_END: return 0;
+            case TAG_BYTE: return Byte.BYTES;
+            case TAG_SHORT: return Short.BYTES;
+            case TAG_INT: return Integer.BYTES;
+            case TAG_LONG: return Long.BYTES;
+            case TAG_FLOAT: return Float.BYTES;
+            case TAG_DOUBLE: return Double.BYTES;
+            default: return -1;
+        }
+    }
+
+    private static void skipFully(final DataInput input, long length) throws IOException {
+        while (length > 0) {
+            final int skipped = input.skipBytes((int) Math.min(length, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                // Either blocked or at the end of the input, a read will tell which
+                input.readByte();
+                length--;
+            } else {
+                length -= skipped;
+            }
+        }
+    }
+
+    private static void readValue(final DataInput input, final byte type, final String name,
+            final NbtVisitor visitor) throws IOException {
+        switch (type) {
+            case TAG_BYTE:
+                visitor.visitByte(name, input.readByte());
+                break;
+            case TAG_SHORT:
+                visitor.visitShort(name, input.readShort());
+                break;
+            case TAG_INT:
+                visitor.visitInt(name, input.readInt());
+                break;
+            case TAG_LONG:
+                visitor.visitLong(name, input.readLong());
+                break;
+            case TAG_FLOAT:
+                visitor.visitFloat(name, input.readFloat());
+                break;
+            case TAG_DOUBLE:
+                visitor.visitDouble(name, input.readDouble());
+                break;
+            case TAG_BYTE_ARRAY: {
+                final byte[] value = new byte[input.readInt()];
+                input.readFully(value);
+                visitor.visitByteArray(name, value);
+                break;
+            }
+            case TAG_STRING:
+                visitor.visitString(name, input.readUTF());
+                break;
+            case TAG_LIST: {
+                final byte elementType = input.readByte();
+                final int length = input.readInt();
+                visitor.visitListStart(name, elementType, length);
+                for (int i = 0; i < length; i++) {
+                    readValue(input, elementType, null, visitor);
+                }
+                visitor.visitListEnd();
+                break;
+            }
+            case TAG_COMPOUND: {
+                visitor.visitCompoundStart(name);
+                byte childType;
+                while ((childType = input.readByte()) != TAG_END) {
+                    readValue(input, childType, CompoundTag.readName(input), visitor);
+                }
+                visitor.visitCompoundEnd();
+                break;
+            }
+            case TAG_INT_ARRAY: {
+                final int[] value = new int[input.readInt()];
+                IntArrayTag.readValues(input, value, value.length);
+                visitor.visitIntArray(name, value);
+                break;
+            }
+            case TAG_LONG_ARRAY: {
+                final long[] value = new long[input.readInt()];
+                LongArrayTag.readValues(input, value, value.length);
+                visitor.visitLongArray(name, value);
+                break;
+            }
+            case TAG_END:
+                // Only found as the element type of empty lists
+                break;
+            default:
+                throw new RuntimeException("Unknown Tag type " + type + "!");
+        }
+    }
+
+    private NbtReader() {
+    }
+
+}
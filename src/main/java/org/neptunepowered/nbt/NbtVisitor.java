@@ -0,0 +1,150 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+/**
+ * A visitor for NBT data, receiving each tag as it is read by a
+ * {@link NbtReader}, without a tree of {@link Tag tags} having to
+ * be built.
+ *
+ * <p>Tags within a compound are visited with their name, whereas elements
+ * of a list are visited with a {@code null} name. Every call to
+ * {@link #visitCompoundStart(String)} and {@link #visitListStart(String, byte, int)}
+ * is matched by a later call to {@link #visitCompoundEnd()} and
+ * {@link #visitListEnd()} respectively.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public interface NbtVisitor {
+
+    /**
+     * Visits the start of a compound tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     */
+    void visitCompoundStart(final String name);
+
+    /**
+     * Visits the end of the current compound tag.
+     */
+    void visitCompoundEnd();
+
+    /**
+     * Visits the start of a list tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param type The type of the list's elements
+     * @param length The number of elements in the list
+     */
+    void visitListStart(final String name, final byte type, final int length);
+
+    /**
+     * Visits the end of the current list tag.
+     */
+    void visitListEnd();
+
+    /**
+     * Visits a byte tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param value The value
+     */
+    void visitByte(final String name, final byte value);
+
+    /**
+     * Visits a short tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param value The value
+     */
+    void visitShort(final String name, final short value);
+
+    /**
+     * Visits an integer tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param value The value
+     */
+    void visitInt(final String name, final int value);
+
+    /**
+     * Visits a long tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param value The value
+     */
+    void visitLong(final String name, final long value);
+
+    /**
+     * Visits a float tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param value The value
+     */
+    void visitFloat(final String name, final float value);
+
+    /**
+     * Visits a double tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param value The value
+     */
+    void visitDouble(final String name, final double value);
+
+    /**
+     * Visits a byte array tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param value The value
+     */
+    void visitByteArray(final String name, final byte[] value);
+
+    /**
+     * Visits a string tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param value The value
+     */
+    void visitString(final String name, final String value);
+
+    /**
+     * Visits an integer array tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param value The value
+     */
+    void visitIntArray(final String name, final int[] value);
+
+    /**
+     * Visits a long array tag.
+     *
+     * @param name The tag name, or {@code null} for a list element
+     * @param value The value
+     */
+    void visitLongArray(final String name, final long[] value);
+
+}
@@ -0,0 +1,358 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A reader for Anvil region files, holding 32x32 chunks, each stored as
+ * a compressed {@link CompoundTag compound tag}.
+ *
+ * <p>The file is memory-mapped, rather than read, so loading a chunk only
+ * touches the pages it is stored within. Only the header is parsed when
+ * the region is opened, the chunks themselves are read on demand. As the
+ * mapping is never modified, a region may be read from by multiple
+ * threads at once.</p>
+ *
+ * <p>The mapping is released once the region is {@link #close() closed},
+ * where the platform allows it, or otherwise once it has been garbage
+ * collected. On some platforms, the file can't be deleted or replaced
+ * until then. A region must not be closed while it is being read.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class RegionFile implements Closeable {
+
+    /**
+     * The size of a sector, the unit in which chunks are allocated.
+     */
+    public static final int SECTOR_SIZE = 4096;
+
+    /**
+     * The number of chunks along either axis of the region.
+     */
+    public static final int REGION_SIZE = 32;
+
+    public static final byte COMPRESSION_GZIP = (byte) 1;
+    public static final byte COMPRESSION_ZLIB = (byte) 2;
+    public static final byte COMPRESSION_NONE = (byte) 3;
+
+    /**
+     * The number of chunks within the region.
+     */
+    static final int CHUNKS = REGION_SIZE * REGION_SIZE;
+
+    /**
+     * The size of the header, holding the location table followed by the
+     * timestamp table.
+     */
+    static final int HEADER_SIZE = 2 * SECTOR_SIZE;
+
+    /**
+     * The size of the chunk header, holding the length of the chunk
+     * followed by its compression type.
+     */
+    static final int CHUNK_HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+
+    /**
+     * Gets the index of the given chunk within the header tables.
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return The index
+     */
+    static int index(final int x, final int z) {
+        return (x & (REGION_SIZE - 1)) + (z & (REGION_SIZE - 1)) * REGION_SIZE;
+    }
+
+    /**
+     * Releases the mapping of the given buffer, should the platform allow
+     * it, rather than leaving it to be garbage collected.
+     *
+     * @param buffer The mapped buffer
+     */
+    private static void unmap(final ByteBuffer buffer) {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (final NoSuchMethodException ex) {
+                invokeCleaner = null;
+            }
+
+            if (invokeCleaner != null) {
+                // Java 9 and later
+                final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } else {
+                // Java 8
+                final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (final ReflectiveOperationException | RuntimeException ignored) {
+            // Left to be released once garbage collected
+        }
+    }
+
+    private final ByteBuffer map;
+    private volatile boolean closed;
+    private final int[] locations = new int[CHUNKS];
+    private final int[] timestamps = new int[CHUNKS];
+
+    /**
+     * Opens the region file at the given {@link Path path}.
+     *
+     * @param path The path
+     * @throws IOException Should an IO error occur, or the header be truncated
+     */
+    public RegionFile(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Region file header is truncated!");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Region file is too large!");
+            }
+
+            // The mapping remains valid once the channel has been closed
+            this.map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        this.map.asIntBuffer().get(this.locations).get(this.timestamps);
+    }
+
+    /**
+     * Checks whether the given chunk is stored within the region.
+     *
+     * <p>Chunk coordinates may be given either relative to the region, or
+     * absolute, as only their position within the region is considered.</p>
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return {@code true} if the chunk is present
+     */
+    public boolean hasChunk(final int x, final int z) {
+        return this.locations[index(x, z)] != 0;
+    }
+
+    /**
+     * Gets the time at which the given chunk was last written.
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return The time, in seconds since the epoch, or {@code 0} if the
+     *         chunk isn't present
+     */
+    public int getTimestamp(final int x, final int z) {
+        return this.timestamps[index(x, z)];
+    }
+
+    /**
+     * Gets the compression type of the given chunk, one of
+     * {@link #COMPRESSION_GZIP}, {@link #COMPRESSION_ZLIB} or
+     * {@link #COMPRESSION_NONE}.
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return The compression type, or {@code 0} if the chunk isn't present
+     * @throws IOException Should the chunk be corrupt
+     */
+    public byte getCompressionType(final int x, final int z) throws IOException {
+        this.checkOpen();
+        final int index = index(x, z);
+        if (this.locations[index] == 0) {
+            return 0;
+        }
+        return this.map.get(this.locate(index) + Integer.BYTES);
+    }
+
+    /**
+     * Gets the compressed data of the given chunk, as a read-only view of
+     * the mapped file. No data is copied.
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return The compressed data, or {@code null} if the chunk isn't present
+     * @throws IOException Should the chunk be corrupt
+     * @see #getCompressionType(int, int)
+     */
+    public ByteBuffer getChunkData(final int x, final int z) throws IOException {
+        this.checkOpen();
+        final int index = index(x, z);
+        if (this.locations[index] == 0) {
+            return null;
+        }
+
+        final int start = this.locate(index);
+        final int length = this.map.getInt(start) - Byte.BYTES;
+
+        final ByteBuffer data = this.map.duplicate();
+        data.position(start + CHUNK_HEADER_SIZE);
+        data.limit(start + CHUNK_HEADER_SIZE + length);
+        return data.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Reads the given chunk, decompressing it as required.
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return The chunk, or {@code null} if the chunk isn't present
+     * @throws IOException Should an IO error occur, or the chunk be corrupt
+     */
+    public CompoundTag readChunk(final int x, final int z) throws IOException {
+        final ByteBuffer data = this.getChunkData(x, z);
+        if (data == null) {
+            return null;
+        }
+
+        final byte compression = this.getCompressionType(x, z);
+        if ((compression & 0x80) != 0) {
+            throw new IOException("Chunks stored outside of the region file are not supported!");
+        }
+        switch (compression) {
+            case COMPRESSION_GZIP: return NbtIo.readCompressedStream(new BufferInputStream(data), NbtCompression.GZIP);
+            case COMPRESSION_ZLIB: return NbtIo.readCompressedStream(new BufferInputStream(data), NbtCompression.ZLIB);
+            case COMPRESSION_NONE: return NbtIo.read(data);
+        }
+        throw new IOException("Unknown compression type " + compression + "!");
+    }
+
+    /**
+     * Gets the number of bytes allocated to the given chunk within the
+     * file, which is a whole number of sectors. The file isn't read.
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return The allocated size, or {@code 0} if the chunk isn't present
+     */
+    int getAllocatedSize(final int x, final int z) {
+        return (this.locations[index(x, z)] & 0xFF) * SECTOR_SIZE;
+    }
+
+    /**
+     * Closes the region, releasing the mapping of the file. Chunks may no
+     * longer be read, though those already read remain valid.
+     *
+     * <p>Any {@link #getChunkData(int, int) chunk data} still held becomes
+     * invalid, and must not be read.</p>
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        unmap(this.map);
+    }
+
+    private void checkOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Region file is closed!");
+        }
+    }
+
+    /**
+     * Gets the position of the given chunk within the file, validating its
+     * location against the size of the file.
+     *
+     * @param index The index of the chunk
+     * @return The position of the chunk header
+     * @throws IOException Should the chunk be corrupt
+     */
+    private int locate(final int index) throws IOException {
+        final int location = this.locations[index];
+        final int sector = location >>> 8;
+        final int count = location & 0xFF;
+
+        final long start = (long) sector * SECTOR_SIZE;
+        final long end = start + (long) count * SECTOR_SIZE;
+        if (sector < HEADER_SIZE / SECTOR_SIZE || end > this.map.capacity()) {
+            throw new IOException("Chunk " + index + " lies outside of the region file!");
+        }
+
+        final int length = this.map.getInt((int) start);
+        if (length < Byte.BYTES || start + Integer.BYTES + length > end) {
+            throw new IOException("Chunk " + index + " has an invalid length of " + length + "!");
+        }
+        return (int) start;
+    }
+
+    /**
+     * An {@link InputStream} reading from a {@link ByteBuffer}, used to
+     * hand chunks to the decompressors without first copying them.
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+
+            final int count = Math.min(len, this.buffer.remaining());
+            this.buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+
+    }
+
+}
@@ -0,0 +1,389 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.neptunepowered.nbt.RegionFile.CHUNKS;
+import static org.neptunepowered.nbt.RegionFile.CHUNK_HEADER_SIZE;
+import static org.neptunepowered.nbt.RegionFile.COMPRESSION_GZIP;
+import static org.neptunepowered.nbt.RegionFile.COMPRESSION_NONE;
+import static org.neptunepowered.nbt.RegionFile.COMPRESSION_ZLIB;
+import static org.neptunepowered.nbt.RegionFile.HEADER_SIZE;
+import static org.neptunepowered.nbt.RegionFile.SECTOR_SIZE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A writer for Anvil region files, see {@link RegionFile}.
+ *
+ * <p>Chunks are compressed as they are written, but are held in memory
+ * until the writer is {@link #flush() flushed}. Every chunk written since
+ * the last flush is then stored in a single batch, with chunks in
+ * adjacent sectors written together, and the file synced to disk once
+ * for their data and once for the header, however many chunks there
+ * are.</p>
+ *
+ * <p>Chunks are stored in the first free run of sectors large enough to
+ * hold them, with the file only growing should there be none. The
+ * sectors previously holding a chunk are only reused once the header no
+ * longer refers to them, so should a flush fail part way, the region
+ * still holds either the old or the new chunk.</p>
+ *
+ * <p>The writer is safe for use by multiple threads, and as chunks are
+ * compressed before the writer is locked, chunks may be written from
+ * several threads at once.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class RegionFileWriter implements Flushable, Closeable {
+
+    /**
+     * The number of sectors occupied by the header.
+     */
+    private static final int HEADER_SECTORS = HEADER_SIZE / SECTOR_SIZE;
+
+    /**
+     * The greatest number of sectors a chunk may occupy, as the count is
+     * stored in a single byte of its location.
+     */
+    private static final int MAX_SECTORS = 0xFF;
+
+    private static final byte[] PADDING = new byte[SECTOR_SIZE];
+
+    /**
+     * Marks a chunk which has been removed, but not yet flushed.
+     */
+    private static final ByteBuffer REMOVED = ByteBuffer.allocate(0);
+
+    private final FileChannel channel;
+    private final byte compression;
+    private final int[] locations = new int[CHUNKS];
+    private final int[] timestamps = new int[CHUNKS];
+    private final BitSet sectors = new BitSet();
+    private final ByteBuffer[] pending = new ByteBuffer[CHUNKS];
+    private int dirty;
+
+    /**
+     * Opens the region file at the given {@link Path path} for writing,
+     * creating it should it not exist. Chunks are compressed using zlib.
+     *
+     * @param path The path
+     * @throws IOException Should an IO error occur
+     */
+    public RegionFileWriter(final Path path) throws IOException {
+        this(path, COMPRESSION_ZLIB);
+    }
+
+    /**
+     * Opens the region file at the given {@link Path path} for writing,
+     * creating it should it not exist.
+     *
+     * @param path The path
+     * @param compression The compression type of written chunks, one of
+     *                    {@link RegionFile#COMPRESSION_GZIP},
+     *                    {@link RegionFile#COMPRESSION_ZLIB} or
+     *                    {@link RegionFile#COMPRESSION_NONE}
+     * @throws IOException Should an IO error occur
+     */
+    public RegionFileWriter(final Path path, final byte compression) throws IOException {
+        if (compression != COMPRESSION_GZIP && compression != COMPRESSION_ZLIB && compression != COMPRESSION_NONE) {
+            throw new IllegalArgumentException("Unknown compression type " + compression + "!");
+        }
+        this.compression = compression;
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            this.sectors.set(0, HEADER_SECTORS);
+
+            final long size = this.channel.size();
+            if (size < HEADER_SIZE) {
+                // A new, or empty, region
+                this.writeHeader(this.locations, this.timestamps);
+                return;
+            }
+
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(this.channel, header, 0);
+            header.flip();
+            header.asIntBuffer().get(this.locations).get(this.timestamps);
+
+            final long fileSectors = (size + SECTOR_SIZE - 1) / SECTOR_SIZE;
+            for (int index = 0; index < CHUNKS; index++) {
+                final int location = this.locations[index];
+                if (location == 0) {
+                    continue;
+                }
+
+                final int sector = location >>> 8;
+                final int count = location & 0xFF;
+                if (sector < HEADER_SECTORS || sector + count > fileSectors) {
+                    // The chunk can't be read, so its location is discarded
+                    // rather than allowing it to claim sectors
+                    this.locations[index] = 0;
+                    this.timestamps[index] = 0;
+                    continue;
+                }
+                this.sectors.set(sector, sector + count);
+            }
+        } catch (final IOException | RuntimeException ex) {
+            this.channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Writes the given chunk, replacing any chunk already stored for the
+     * same coordinates once the writer is {@link #flush() flushed}.
+     *
+     * <p>Chunk coordinates may be given either relative to the region, or
+     * absolute, as only their position within the region is considered.</p>
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @param tag The chunk
+     * @throws IOException Should an IO error occur, or the chunk be too
+     *                     large to be stored
+     */
+    public void write(final int x, final int z, final CompoundTag tag) throws IOException {
+        final Buffer buffer = new Buffer();
+
+        // Leave room for the chunk header, filled in once the length is known
+        buffer.write(PADDING, 0, CHUNK_HEADER_SIZE);
+        switch (this.compression) {
+            case COMPRESSION_GZIP:
+                NbtIo.writeCompressedStream(tag, buffer, NbtCompression.GZIP);
+                break;
+            case COMPRESSION_ZLIB:
+                NbtIo.writeCompressedStream(tag, buffer, NbtCompression.ZLIB);
+                break;
+            default:
+                NbtIo.writeStream(tag, buffer);
+                break;
+        }
+
+        final int length = buffer.size();
+        final int count = (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        if (count > MAX_SECTORS) {
+            throw new IOException("Chunk is too large to be stored, at " + length + " bytes!");
+        }
+
+        // Pad to a whole number of sectors, so the file never ends part way through one
+        buffer.write(PADDING, 0, count * SECTOR_SIZE - length);
+
+        final ByteBuffer data = buffer.toByteBuffer();
+        data.putInt(0, length - Integer.BYTES);
+        data.put(Integer.BYTES, this.compression);
+        this.stage(RegionFile.index(x, z), data);
+    }
+
+    /**
+     * Removes the given chunk, once the writer is {@link #flush() flushed}.
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     */
+    public void remove(final int x, final int z) {
+        this.stage(RegionFile.index(x, z), REMOVED);
+    }
+
+    private synchronized void stage(final int index, final ByteBuffer data) {
+        if (this.pending[index] == null) {
+            this.dirty++;
+        }
+        this.pending[index] = data;
+    }
+
+    /**
+     * Stores every chunk written since the last flush, and syncs the file
+     * to disk.
+     *
+     * @throws IOException Should an IO error occur
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if (this.dirty == 0) {
+            return;
+        }
+
+        final int now = (int) (System.currentTimeMillis() / 1000L);
+        final int[] locations = this.locations.clone();
+        final int[] timestamps = this.timestamps.clone();
+
+        // Allocate sectors for every chunk, ordering them by sector so that
+        // chunks in adjacent sectors can be written together - the sectors
+        // are only claimed once the header is synced, so that a failed
+        // flush may be retried without leaking them
+        final BitSet sectors = (BitSet) this.sectors.clone();
+        final long[] order = new long[this.dirty];
+        int written = 0;
+        for (int index = 0; index < CHUNKS; index++) {
+            final ByteBuffer data = this.pending[index];
+            if (data == null) {
+                continue;
+            }
+            if (data == REMOVED) {
+                locations[index] = 0;
+                timestamps[index] = 0;
+                continue;
+            }
+
+            final int count = data.remaining() / SECTOR_SIZE;
+            final int sector = allocate(sectors, count);
+            locations[index] = (sector << 8) | count;
+            timestamps[index] = now;
+            order[written++] = ((long) sector << 32) | index;
+        }
+        Arrays.sort(order, 0, written);
+
+        int i = 0;
+        while (i < written) {
+            final long start = (order[i] >>> 32) * SECTOR_SIZE;
+            long end = start;
+
+            int j = i;
+            while (j < written && (order[j] >>> 32) * SECTOR_SIZE == end) {
+                end += this.pending[(int) order[j]].remaining();
+                j++;
+            }
+
+            final ByteBuffer[] run = new ByteBuffer[j - i];
+            for (int k = 0; k < run.length; k++) {
+                run[k] = this.pending[(int) order[i + k]].duplicate();
+            }
+            this.channel.position(start);
+            while (run[run.length - 1].hasRemaining()) {
+                this.channel.write(run);
+            }
+            i = j;
+        }
+
+        // The data must reach the disk before the header refers to it
+        this.channel.force(false);
+        this.writeHeader(locations, timestamps);
+        this.channel.force(false);
+
+        // Only now that the header has been synced can the new sectors be
+        // claimed, and the old sectors be reused
+        for (int index = 0; index < CHUNKS; index++) {
+            if (this.pending[index] == null) {
+                continue;
+            }
+            final int previous = this.locations[index];
+            if (previous != 0) {
+                this.sectors.clear(previous >>> 8, (previous >>> 8) + (previous & 0xFF));
+            }
+            final int location = locations[index];
+            if (location != 0) {
+                this.sectors.set(location >>> 8, (location >>> 8) + (location & 0xFF));
+            }
+            this.pending[index] = null;
+        }
+        System.arraycopy(locations, 0, this.locations, 0, CHUNKS);
+        System.arraycopy(timestamps, 0, this.timestamps, 0, CHUNKS);
+        this.dirty = 0;
+    }
+
+    /**
+     * Allocates the first free run of sectors of the given length, growing
+     * the file should there be none.
+     *
+     * @param sectors The sectors in use
+     * @param count The number of sectors
+     * @return The first sector of the run
+     */
+    private static int allocate(final BitSet sectors, final int count) {
+        int start = sectors.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            final int end = sectors.nextSetBit(start);
+            if (end == -1 || end - start >= count) {
+                break;
+            }
+            start = sectors.nextClearBit(end);
+        }
+        sectors.set(start, start + count);
+        return start;
+    }
+
+    private void writeHeader(final int[] locations, final int[] timestamps) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.asIntBuffer().put(locations).put(timestamps);
+
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += this.channel.write(header, position);
+        }
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Region file header is truncated!");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Flushes any pending chunks, and closes the file.
+     *
+     * @throws IOException Should an IO error occur
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * An in-memory output, exposing its contents without copying.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer() {
+            super(SECTOR_SIZE);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(this.buf, 0, this.count);
+        }
+
+    }
+
+}
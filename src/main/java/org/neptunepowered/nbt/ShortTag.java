@@ -40,6 +40,7 @@
 public class ShortTag implements Tag {
 
     private short value;
+    private boolean frozen;
 
     public ShortTag() {
     }
@@ -57,8 +58,34 @@ public short getValue() {
         return this.value;
     }
 
+    /**
+     * Freezes the tag, such that it can no longer be
+     * {@link #read(DataInput) read} into.
+     *
+     * @return This tag
+     */
+    @Override
+    public ShortTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Creates a copy of the tag, unless it is frozen, in which case it is
+     * returned as is.
+     *
+     * @return The copy, which may be this tag
+     */
+    @Override
+    public ShortTag copy() {
+        return this.frozen ? this : new ShortTag(this.value);
+    }
+
     @Override
     public void read(final DataInput input) throws IOException {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen tags can't be modified!");
+        }
         this.value = input.readShort();
     }
 
@@ -67,6 +94,33 @@ public void write(final DataOutput output) throws IOException {
         output.writeShort(this.value);
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ShortTag)) {
+            return false;
+        }
+        final ShortTag that = (ShortTag) obj;
+        return this.value == that.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Short.hashCode(this.value);
+    }
+
+    @Override
+    public int serializedSize() {
+        return 2;
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        return HeapSize.object(2 + 1);
+    }
+
     @Override
     public byte getId() {
         return TAG_SHORT;
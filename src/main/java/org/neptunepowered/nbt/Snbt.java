@@ -0,0 +1,785 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.neptunepowered.nbt.NbtConstants.TAG_BYTE;
+import static org.neptunepowered.nbt.NbtConstants.TAG_BYTE_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_COMPOUND;
+import static org.neptunepowered.nbt.NbtConstants.TAG_DOUBLE;
+import static org.neptunepowered.nbt.NbtConstants.TAG_FLOAT;
+import static org.neptunepowered.nbt.NbtConstants.TAG_INT;
+import static org.neptunepowered.nbt.NbtConstants.TAG_INT_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LIST;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LONG;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LONG_ARRAY;
+import static org.neptunepowered.nbt.NbtConstants.TAG_SHORT;
+import static org.neptunepowered.nbt.NbtConstants.TAG_STRING;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Functions for reading and writing stringified NBT (SNBT), as used in
+ * commands - such as {@code {id:"minecraft:stone",Count:1b,Pos:[I;1,2,3]}}.
+ *
+ * <p>Text is parsed in a single pass, directly into tags, without
+ * regular expressions or intermediate tokens. Tags are written straight
+ * to an {@link Appendable}, with only numbers formatted separately -
+ * and not even those, should it be a {@link StringBuilder}.</p>
+ *
+ * <p>Unquoted values are read as numbers where they can be, following
+ * their suffixes ({@code b}, {@code s}, {@code L}, {@code f} and
+ * {@code d}), and as strings otherwise. {@code true} and {@code false}
+ * are read as bytes.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class Snbt {
+
+    /**
+     * The deepest nesting of compounds and lists that will be parsed,
+     * as SNBT is commonly received from untrusted sources.
+     */
+    private static final int MAX_DEPTH = 512;
+
+    /**
+     * Reads a {@link CompoundTag compound tag} from the given SNBT.
+     *
+     * @param snbt The SNBT
+     * @return The compound
+     * @throws IOException Should the SNBT be malformed, or not a compound
+     */
+    public static CompoundTag read(final CharSequence snbt) throws IOException {
+        final Parser parser = new Parser(snbt);
+        parser.skipWhitespace();
+        parser.expect('{');
+        final CompoundTag tag = parser.readCompound(0);
+        parser.expectEnd();
+        return tag;
+    }
+
+    /**
+     * Reads a {@link Tag tag}, of any type, from the given SNBT.
+     *
+     * @param snbt The SNBT
+     * @return The tag
+     * @throws IOException Should the SNBT be malformed
+     */
+    public static Tag readTag(final CharSequence snbt) throws IOException {
+        final Parser parser = new Parser(snbt);
+        final Tag tag = parser.readValue(0);
+        parser.expectEnd();
+        return tag;
+    }
+
+    /**
+     * Writes the given {@link Tag tag} as SNBT to the {@link Appendable}.
+     *
+     * @param tag The tag
+     * @param out The output
+     * @throws IOException Should an IO error occur
+     */
+    public static void write(final Tag tag, final Appendable out) throws IOException {
+        switch (tag.getId()) {
+            case TAG_BYTE:
+                append(out, ((ByteTag) tag).getValue());
+                out.append('b');
+                break;
+            case TAG_SHORT:
+                append(out, ((ShortTag) tag).getValue());
+                out.append('s');
+                break;
+            case TAG_INT:
+                append(out, ((IntTag) tag).getValue());
+                break;
+            case TAG_LONG:
+                append(out, ((LongTag) tag).getValue());
+                out.append('L');
+                break;
+            case TAG_FLOAT:
+                append(out, ((FloatTag) tag).getValue());
+                out.append('f');
+                break;
+            case TAG_DOUBLE:
+                append(out, ((DoubleTag) tag).getValue());
+                out.append('d');
+                break;
+            case TAG_BYTE_ARRAY: {
+                final byte[] values = ((ByteArrayTag) tag).getValue();
+                out.append("[B;");
+                for (int i = 0; i < values.length; i++) {
+                    if (i != 0) {
+                        out.append(',');
+                    }
+                    append(out, values[i]);
+                    out.append('b');
+                }
+                out.append(']');
+                break;
+            }
+            case TAG_STRING:
+                writeString(((StringTag) tag).getValue(), out);
+                break;
+            case TAG_LIST:
+                writeList((ListTag) tag, out);
+                break;
+            case TAG_COMPOUND: {
+                final CompoundTag compound = (CompoundTag) tag;
+                out.append('{');
+                boolean first = true;
+                for (final String name : compound.keys()) {
+                    if (!first) {
+                        out.append(',');
+                    }
+                    first = false;
+                    writeName(name, out);
+                    out.append(':');
+                    write(LazyTag.resolve(compound.lookup(name)), out);
+                }
+                out.append('}');
+                break;
+            }
+            case TAG_INT_ARRAY: {
+                final int[] values = ((IntArrayTag) tag).getValue();
+                out.append("[I;");
+                for (int i = 0; i < values.length; i++) {
+                    if (i != 0) {
+                        out.append(',');
+                    }
+                    append(out, values[i]);
+                }
+                out.append(']');
+                break;
+            }
+            case TAG_LONG_ARRAY: {
+                final long[] values = ((LongArrayTag) tag).getValue();
+                out.append("[L;");
+                for (int i = 0; i < values.length; i++) {
+                    if (i != 0) {
+                        out.append(',');
+                    }
+                    append(out, values[i]);
+                    out.append('L');
+                }
+                out.append(']');
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Cannot write tag of type " + tag.getId() + " as SNBT!");
+        }
+    }
+
+    /**
+     * Writes the given {@link Tag tag} as SNBT.
+     *
+     * @param tag The tag
+     * @return The SNBT
+     */
+    public static String write(final Tag tag) {
+        final StringBuilder builder = new StringBuilder();
+        try {
+            write(tag, builder);
+        } catch (final IOException ex) {
+            // A StringBuilder never throws
+            throw new UncheckedIOException(ex);
+        }
+        return builder.toString();
+    }
+
+    private static void writeList(final ListTag list, final Appendable out) throws IOException {
+        out.append('[');
+        for (int i = 0; i < list.size(); i++) {
+            if (i != 0) {
+                out.append(',');
+            }
+            // Read numeric elements directly, rather than through a tag for each
+            switch (list.getElementType()) {
+                case TAG_BYTE:
+                    append(out, list.getByte(i));
+                    out.append('b');
+                    break;
+                case TAG_SHORT:
+                    append(out, list.getShort(i));
+                    out.append('s');
+                    break;
+                case TAG_INT:
+                    append(out, list.getInt(i));
+                    break;
+                case TAG_LONG:
+                    append(out, list.getLong(i));
+                    out.append('L');
+                    break;
+                case TAG_FLOAT:
+                    append(out, list.getFloat(i));
+                    out.append('f');
+                    break;
+                case TAG_DOUBLE:
+                    append(out, list.getDouble(i));
+                    out.append('d');
+                    break;
+                default:
+                    write(LazyTag.resolve(list.lookup(i)), out);
+                    break;
+            }
+        }
+        out.append(']');
+    }
+
+    private static void writeName(final String name, final Appendable out) throws IOException {
+        if (name.isEmpty()) {
+            out.append("\"\"");
+            return;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!isUnquoted(name.charAt(i))) {
+                writeString(name, out);
+                return;
+            }
+        }
+        out.append(name);
+    }
+
+    private static void writeString(final String value, final Appendable out) throws IOException {
+        // Prefer double quotes, unless single quotes would need no escaping
+        final char quote = value.indexOf('"') >= 0 && value.indexOf('\'') < 0 ? '\'' : '"';
+        out.append(quote);
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == quote || c == '\\') {
+                out.append(value, start, i);
+                out.append('\\');
+                start = i;
+            }
+        }
+        out.append(value, start, value.length());
+        out.append(quote);
+    }
+
+    private static void append(final Appendable out, final int value) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        } else {
+            out.append(Integer.toString(value));
+        }
+    }
+
+    private static void append(final Appendable out, final long value) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        } else {
+            out.append(Long.toString(value));
+        }
+    }
+
+    private static void append(final Appendable out, final float value) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        } else {
+            out.append(Float.toString(value));
+        }
+    }
+
+    private static void append(final Appendable out, final double value) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        } else {
+            out.append(Double.toString(value));
+        }
+    }
+
+    private static boolean isUnquoted(final char c) {
+        return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')
+                || c == '_' || c == '-' || c == '.' || c == '+';
+    }
+
+    private Snbt() {
+    }
+
+    /**
+     * A recursive descent parser over SNBT, producing tags directly.
+     */
+    private static final class Parser {
+
+        private final CharSequence input;
+        private final int length;
+        private int position;
+
+        /**
+         * Set by {@link #parseInteger(int, int)} should the value not be an
+         * integer, or overflow a long.
+         */
+        private boolean invalid;
+
+        Parser(final CharSequence input) {
+            this.input = input;
+            this.length = input.length();
+        }
+
+        Tag readValue(final int depth) throws IOException {
+            this.skipWhitespace();
+            if (this.position >= this.length) {
+                throw this.error("Expected value");
+            }
+            final char c = this.input.charAt(this.position);
+            switch (c) {
+                case '{':
+                    this.position++;
+                    return this.readCompound(depth);
+                case '[':
+                    this.position++;
+                    return this.readListOrArray(depth);
+                case '"':
+                case '\'':
+                    this.position++;
+                    return new StringTag(this.readQuoted(c));
+                default:
+                    return this.readUnquotedValue();
+            }
+        }
+
+        CompoundTag readCompound(final int depth) throws IOException {
+            this.checkDepth(depth);
+            final CompoundTag compound = new CompoundTag();
+            this.skipWhitespace();
+            if (this.accept('}')) {
+                return compound;
+            }
+            do {
+                this.skipWhitespace();
+                final String name = this.readName();
+                this.skipWhitespace();
+                this.expect(':');
+                compound.put(name, this.readValue(depth + 1));
+                this.skipWhitespace();
+            } while (this.accept(','));
+            this.expect('}');
+            return compound;
+        }
+
+        private Tag readListOrArray(final int depth) throws IOException {
+            // Arrays are prefixed by their type, as in [I;1,2,3]
+            if (this.position + 1 < this.length && this.input.charAt(this.position + 1) == ';') {
+                final char type = this.input.charAt(this.position);
+                switch (type) {
+                    case 'B':
+                        this.position += 2;
+                        return new ByteArrayTag(this.readByteArray());
+                    case 'I':
+                        this.position += 2;
+                        return new IntArrayTag(this.readIntArray());
+                    case 'L':
+                        this.position += 2;
+                        return new LongArrayTag(this.readLongArray());
+                    default:
+                        throw this.error("Unknown array type '" + type + "'");
+                }
+            }
+            return this.readList(depth);
+        }
+
+        private ListTag readList(final int depth) throws IOException {
+            this.checkDepth(depth);
+            final ListTag list = new ListTag();
+            this.skipWhitespace();
+            if (this.accept(']')) {
+                return list;
+            }
+            do {
+                final int start = this.position;
+                final Tag tag = this.readValue(depth + 1);
+                if (list.size() != 0 && tag.getId() != list.getElementType()) {
+                    this.position = start;
+                    throw this.error("Cannot add tag of type " + tag.getId() + " to list of type " + list.getElementType());
+                }
+                list.add(tag);
+                this.skipWhitespace();
+            } while (this.accept(','));
+            this.expect(']');
+            return list;
+        }
+
+        private byte[] readByteArray() throws IOException {
+            byte[] values = new byte[16];
+            int size = 0;
+            this.skipWhitespace();
+            if (!this.accept(']')) {
+                do {
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size << 1);
+                    }
+                    values[size++] = (byte) this.readArrayElement('b', Byte.MIN_VALUE, Byte.MAX_VALUE);
+                } while (this.accept(','));
+                this.expect(']');
+            }
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+
+        private int[] readIntArray() throws IOException {
+            int[] values = new int[16];
+            int size = 0;
+            this.skipWhitespace();
+            if (!this.accept(']')) {
+                do {
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size << 1);
+                    }
+                    values[size++] = (int) this.readArrayElement('\0', Integer.MIN_VALUE, Integer.MAX_VALUE);
+                } while (this.accept(','));
+                this.expect(']');
+            }
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+
+        private long[] readLongArray() throws IOException {
+            long[] values = new long[16];
+            int size = 0;
+            this.skipWhitespace();
+            if (!this.accept(']')) {
+                do {
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size << 1);
+                    }
+                    values[size++] = this.readArrayElement('l', Long.MIN_VALUE, Long.MAX_VALUE);
+                } while (this.accept(','));
+                this.expect(']');
+            }
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+
+        /**
+         * Reads an integer within an array, which may carry the suffix of
+         * the array's type, leaving the position after any whitespace
+         * following it.
+         */
+        private long readArrayElement(final char suffix, final long min, final long max) throws IOException {
+            this.skipWhitespace();
+            final int start = this.position;
+            int end = this.skipUnquoted();
+            if (end > start && suffix != '\0' && Character.toLowerCase(this.input.charAt(end - 1)) == suffix) {
+                end--;
+            }
+            final long value = this.parseInteger(start, end);
+            if (end == start || value < min || value > max || this.invalid) {
+                this.position = start;
+                throw this.error("Invalid array element");
+            }
+            this.skipWhitespace();
+            return value;
+        }
+
+        private String readName() throws IOException {
+            if (this.position < this.length) {
+                final char c = this.input.charAt(this.position);
+                if (c == '"' || c == '\'') {
+                    this.position++;
+                    return this.readQuoted(c);
+                }
+            }
+            final int start = this.position;
+            final int end = this.skipUnquoted();
+            if (end == start) {
+                throw this.error("Expected name");
+            }
+            return this.substring(start, end);
+        }
+
+        private String readQuoted(final char quote) throws IOException {
+            final int start = this.position;
+            StringBuilder builder = null;
+            int run = start;
+            while (this.position < this.length) {
+                final char c = this.input.charAt(this.position);
+                if (c == quote) {
+                    final String value;
+                    if (builder == null) {
+                        value = this.substring(start, this.position);
+                    } else {
+                        value = builder.append(this.input, run, this.position).toString();
+                    }
+                    this.position++;
+                    return value;
+                }
+                if (c == '\\') {
+                    if (builder == null) {
+                        builder = new StringBuilder(this.position - start + 16);
+                    }
+                    builder.append(this.input, run, this.position);
+                    this.position++;
+                    if (this.position >= this.length) {
+                        break;
+                    }
+                    builder.append(this.readEscape());
+                    run = this.position;
+                    continue;
+                }
+                this.position++;
+            }
+            this.position = start - 1;
+            throw this.error("Unterminated string");
+        }
+
+        private char readEscape() throws IOException {
+            final char c = this.input.charAt(this.position++);
+            switch (c) {
+                case '\\':
+                case '"':
+                case '\'':
+                    return c;
+                case 'n': return '\n';
+                case 't': return '\t';
+                case 'r': return '\r';
+                case 'b': return '\b';
+                case 'f': return '\f';
+                case 'u': {
+                    if (this.position + 4 > this.length) {
+                        throw this.error("Invalid unicode escape");
+                    }
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        final int digit = Character.digit(this.input.charAt(this.position++), 16);
+                        if (digit < 0) {
+                            throw this.error("Invalid unicode escape");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    return (char) value;
+                }
+                default:
+                    this.position--;
+                    throw this.error("Invalid escape '\\" + c + "'");
+            }
+        }
+
+        private Tag readUnquotedValue() throws IOException {
+            final int start = this.position;
+            final int end = this.skipUnquoted();
+            if (end == start) {
+                throw this.error("Expected value");
+            }
+            final Tag number = this.parseNumber(start, end);
+            return number != null ? number : new StringTag(this.substring(start, end));
+        }
+
+        /**
+         * Parses the unquoted value between the given positions as a
+         * number, following its suffix.
+         *
+         * @return The number, or {@code null} if the value isn't one
+         */
+        private Tag parseNumber(final int start, final int end) {
+            final char last = this.input.charAt(end - 1);
+            switch (last) {
+                case 'b':
+                case 'B': {
+                    final long value = this.parseInteger(start, end - 1);
+                    return this.invalid || value < Byte.MIN_VALUE || value > Byte.MAX_VALUE ? null : new ByteTag((byte) value);
+                }
+                case 's':
+                case 'S': {
+                    final long value = this.parseInteger(start, end - 1);
+                    return this.invalid || value < Short.MIN_VALUE || value > Short.MAX_VALUE ? null : new ShortTag((short) value);
+                }
+                case 'l':
+                case 'L': {
+                    final long value = this.parseInteger(start, end - 1);
+                    return this.invalid ? null : new LongTag(value);
+                }
+                case 'f':
+                case 'F':
+                    return this.isDecimal(start, end - 1) ? new FloatTag(Float.parseFloat(this.substring(start, end - 1))) : null;
+                case 'd':
+                case 'D':
+                    return this.isDecimal(start, end - 1) ? new DoubleTag(Double.parseDouble(this.substring(start, end - 1))) : null;
+                case 'e':
+                case 'E':
+                    if (this.matches(start, end, "true")) {
+                        return new ByteTag((byte) 1);
+                    }
+                    if (this.matches(start, end, "false")) {
+                        return new ByteTag((byte) 0);
+                    }
+                    return null;
+                default: {
+                    final long value = this.parseInteger(start, end);
+                    if (!this.invalid) {
+                        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? null : new IntTag((int) value);
+                    }
+                    // Unsuffixed decimals are doubles
+                    return this.isDecimal(start, end) && !this.isSpecial(start, end)
+                            ? new DoubleTag(Double.parseDouble(this.substring(start, end))) : null;
+                }
+            }
+        }
+
+        private long parseInteger(final int start, final int end) {
+            this.invalid = true;
+            int i = start;
+            boolean negative = false;
+            if (i < end && (this.input.charAt(i) == '-' || this.input.charAt(i) == '+')) {
+                negative = this.input.charAt(i) == '-';
+                i++;
+            }
+            if (i == end) {
+                return 0;
+            }
+            // Accumulate negatively, so as to reach Long.MIN_VALUE
+            long value = 0;
+            for (; i < end; i++) {
+                final int digit = this.input.charAt(i) - '0';
+                if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+                    return 0;
+                }
+                value = value * 10 - digit;
+            }
+            if (!negative && value == Long.MIN_VALUE) {
+                return 0;
+            }
+            this.invalid = false;
+            return negative ? value : -value;
+        }
+
+        /**
+         * Establishes whether the value between the given positions is a
+         * decimal, optionally signed and with an exponent - or is one of
+         * {@code NaN} or {@code Infinity}, as written for such values.
+         */
+        private boolean isDecimal(final int start, final int end) {
+            if (this.isSpecial(start, end)) {
+                return true;
+            }
+            int i = start;
+            if (i < end && (this.input.charAt(i) == '-' || this.input.charAt(i) == '+')) {
+                i++;
+            }
+            int digits = 0;
+            boolean point = false;
+            for (; i < end; i++) {
+                final char c = this.input.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    digits++;
+                } else if (c == '.' && !point) {
+                    point = true;
+                } else {
+                    break;
+                }
+            }
+            if (digits == 0) {
+                return false;
+            }
+            if (i < end && (this.input.charAt(i) == 'e' || this.input.charAt(i) == 'E')) {
+                i++;
+                if (i < end && (this.input.charAt(i) == '-' || this.input.charAt(i) == '+')) {
+                    i++;
+                }
+                final int exponent = i;
+                while (i < end && this.input.charAt(i) >= '0' && this.input.charAt(i) <= '9') {
+                    i++;
+                }
+                if (i == exponent) {
+                    return false;
+                }
+            }
+            return i == end;
+        }
+
+        private boolean isSpecial(final int start, final int end) {
+            final int from = start < end && (this.input.charAt(start) == '-' || this.input.charAt(start) == '+') ? start + 1 : start;
+            return this.matches(start, end, "NaN") || this.matches(from, end, "Infinity");
+        }
+
+        private boolean matches(final int start, final int end, final String value) {
+            if (end - start != value.length()) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (this.input.charAt(start + i) != value.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Advances past any unquoted characters.
+         *
+         * @return The position following them
+         */
+        private int skipUnquoted() {
+            while (this.position < this.length && isUnquoted(this.input.charAt(this.position))) {
+                this.position++;
+            }
+            return this.position;
+        }
+
+        void skipWhitespace() {
+            while (this.position < this.length && Character.isWhitespace(this.input.charAt(this.position))) {
+                this.position++;
+            }
+        }
+
+        private boolean accept(final char c) {
+            if (this.position < this.length && this.input.charAt(this.position) == c) {
+                this.position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(final char c) throws IOException {
+            if (!this.accept(c)) {
+                throw this.error("Expected '" + c + "'");
+            }
+        }
+
+        void expectEnd() throws IOException {
+            this.skipWhitespace();
+            if (this.position != this.length) {
+                throw this.error("Unexpected trailing data");
+            }
+        }
+
+        private void checkDepth(final int depth) throws IOException {
+            if (depth >= MAX_DEPTH) {
+                throw this.error("Tags nested too deeply");
+            }
+        }
+
+        private String substring(final int start, final int end) {
+            return this.input instanceof String
+                    ? ((String) this.input).substring(start, end)
+                    : this.input.subSequence(start, end).toString();
+        }
+
+        private IOException error(final String message) {
+            return new IOException(message + " at position " + this.position + "!");
+        }
+
+    }
+
+}
@@ -0,0 +1,343 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A buffered {@link NbtInput} reading from an {@link InputStream}.
+ *
+ * <p>As the input reads ahead of what has been consumed, the stream
+ * shouldn't be read from directly once it has been wrapped.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class StreamInput implements NbtInput, Closeable {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final InputStream in;
+    private final KeyPool pool;
+    private final TagPool tags;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    /**
+     * Creates an input reading from the given {@link InputStream stream}.
+     *
+     * @param in The stream
+     */
+    public StreamInput(final InputStream in) {
+        this(in, null);
+    }
+
+    /**
+     * Creates an input reading from the given {@link InputStream stream},
+     * pooling the names of tags within compounds.
+     *
+     * @param in The stream
+     * @param pool The pool of names, or {@code null} to not pool names
+     */
+    public StreamInput(final InputStream in, final KeyPool pool) {
+        this(in, pool, null);
+    }
+
+    /**
+     * Creates an input reading from the given {@link InputStream stream},
+     * pooling the names of tags within compounds, and equal tags.
+     *
+     * @param in The stream
+     * @param pool The pool of names, or {@code null} to not pool names
+     * @param tags The pool of tags, or {@code null} to not pool tags
+     */
+    public StreamInput(final InputStream in, final KeyPool pool, final TagPool tags) {
+        this(in, pool, tags, new byte[BUFFER_SIZE]);
+    }
+
+    /**
+     * Creates an input reading from the given {@link InputStream stream},
+     * through the given buffer.
+     *
+     * @param in The stream
+     * @param pool The pool of names, or {@code null} to not pool names
+     * @param tags The pool of tags, or {@code null} to not pool tags
+     * @param buffer The buffer, of at least eight bytes
+     */
+    StreamInput(final InputStream in, final KeyPool pool, final TagPool tags, final byte[] buffer) {
+        this.in = in;
+        this.pool = pool;
+        this.tags = tags;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Ensures at least the given number of bytes are buffered, which must
+     * be no greater than the size of the buffer.
+     *
+     * @param length The number of bytes
+     * @throws IOException Should an IO error occur
+     */
+    private void require(final int length) throws IOException {
+        if (this.limit - this.position >= length) {
+            return;
+        }
+
+        // Move the remaining bytes to the start of the buffer, making room
+        System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+        this.limit -= this.position;
+        this.position = 0;
+
+        while (this.limit < length) {
+            final int read = this.in.read(this.buffer, this.limit, this.buffer.length - this.limit);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            this.limit += read;
+        }
+    }
+
+    @Override
+    public void readFully(final byte[] b) throws IOException {
+        this.readFully(b, 0, b.length);
+    }
+
+    @Override
+    public void readFully(final byte[] b, int off, int len) throws IOException {
+        final int buffered = Math.min(len, this.limit - this.position);
+        System.arraycopy(this.buffer, this.position, b, off, buffered);
+        this.position += buffered;
+        off += buffered;
+        len -= buffered;
+
+        // Anything else is read directly, rather than through the buffer
+        while (len > 0) {
+            final int read = this.in.read(b, off, len);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            off += read;
+            len -= read;
+        }
+    }
+
+    @Override
+    public int skipBytes(final int n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+
+        final int buffered = Math.min(n, this.limit - this.position);
+        this.position += buffered;
+
+        int skipped = buffered;
+        while (skipped < n) {
+            final long s = this.in.skip(n - skipped);
+            if (s <= 0) {
+                break;
+            }
+            skipped += (int) s;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return this.readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        this.require(Byte.BYTES);
+        return this.buffer[this.position++];
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return this.readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        this.require(Short.BYTES);
+        final byte[] b = this.buffer;
+        final int p = this.position;
+        this.position += Short.BYTES;
+        return (short) ((b[p] << 8) | (b[p + 1] & 0xFF));
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return this.readShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return (char) this.readShort();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        this.require(Integer.BYTES);
+        final byte[] b = this.buffer;
+        final int p = this.position;
+        this.position += Integer.BYTES;
+        return (b[p] << 24) | ((b[p + 1] & 0xFF) << 16) | ((b[p + 2] & 0xFF) << 8) | (b[p + 3] & 0xFF);
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        this.require(Long.BYTES);
+        final byte[] b = this.buffer;
+        final int p = this.position;
+        this.position += Long.BYTES;
+        return ((long) b[p] << 56)
+                | ((long) (b[p + 1] & 0xFF) << 48)
+                | ((long) (b[p + 2] & 0xFF) << 40)
+                | ((long) (b[p + 3] & 0xFF) << 32)
+                | ((long) (b[p + 4] & 0xFF) << 24)
+                | ((b[p + 5] & 0xFF) << 16)
+                | ((b[p + 6] & 0xFF) << 8)
+                | (b[p + 7] & 0xFF);
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(this.readInt());
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(this.readLong());
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        final StringBuilder line = new StringBuilder();
+        while (true) {
+            if (this.position == this.limit) {
+                this.position = 0;
+                this.limit = Math.max(0, this.in.read(this.buffer));
+                if (this.limit == 0) {
+                    return line.length() == 0 ? null : line.toString();
+                }
+            }
+
+            final char c = (char) (this.buffer[this.position++] & 0xFF);
+            if (c == '\n') {
+                return line.toString();
+            }
+            if (c == '\r') {
+                if (this.position == this.limit) {
+                    this.position = 0;
+                    this.limit = Math.max(0, this.in.read(this.buffer));
+                }
+                if (this.position < this.limit && this.buffer[this.position] == '\n') {
+                    this.position++;
+                }
+                return line.toString();
+            }
+            line.append(c);
+        }
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return this.readString(null);
+    }
+
+    @Override
+    public void readInts(final int[] values, int offset, int length) throws IOException {
+        while (length > 0) {
+            this.require(Integer.BYTES);
+            final int count = Math.min(length, (this.limit - this.position) / Integer.BYTES);
+            ByteBuffer.wrap(this.buffer, this.position, count * Integer.BYTES).asIntBuffer().get(values, offset, count);
+            this.position += count * Integer.BYTES;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void readLongs(final long[] values, int offset, int length) throws IOException {
+        while (length > 0) {
+            this.require(Long.BYTES);
+            final int count = Math.min(length, (this.limit - this.position) / Long.BYTES);
+            ByteBuffer.wrap(this.buffer, this.position, count * Long.BYTES).asLongBuffer().get(values, offset, count);
+            this.position += count * Long.BYTES;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public String readKey() throws IOException {
+        return this.readString(this.pool);
+    }
+
+    @Override
+    public Tag canonicalize(final Tag tag) {
+        return this.tags != null ? this.tags.intern(tag) : tag;
+    }
+
+    /**
+     * Reads a string, as by {@link #readUTF()}, decoding it in place within
+     * the buffer where it fits.
+     *
+     * @param pool The pool to intern the string with, or {@code null}
+     * @return The string
+     * @throws IOException Should an IO error occur
+     */
+    private String readString(final KeyPool pool) throws IOException {
+        final int length = this.readUnsignedShort();
+
+        final byte[] bytes;
+        final int offset;
+        if (length > this.buffer.length) {
+            bytes = new byte[length];
+            offset = 0;
+            this.readFully(bytes);
+        } else {
+            this.require(length);
+            bytes = this.buffer;
+            offset = this.position;
+            this.position += length;
+        }
+
+        return pool != null ? pool.intern(bytes, offset, length) : ModifiedUtf8.decode(bytes, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+
+/**
+ * A buffered {@link NbtOutput} writing to an {@link OutputStream}.
+ *
+ * <p>Nothing is guaranteed to have reached the stream until the output
+ * has been {@link #flush() flushed} or {@link #close() closed}.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class StreamOutput implements NbtOutput, Flushable, Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+
+    /**
+     * Creates an output writing to the given {@link OutputStream stream}.
+     *
+     * @param out The stream
+     */
+    public StreamOutput(final OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates an output writing to the given {@link OutputStream stream},
+     * with a buffer of the given size.
+     *
+     * @param out The stream
+     * @param bufferSize The size of the buffer, in bytes
+     */
+    public StreamOutput(final OutputStream out, final int bufferSize) {
+        this(out, new byte[checkBufferSize(bufferSize)]);
+    }
+
+    /**
+     * Creates an output writing to the given {@link OutputStream stream},
+     * through the given buffer.
+     *
+     * @param out The stream
+     * @param buffer The buffer, of at least eight bytes
+     */
+    StreamOutput(final OutputStream out, final byte[] buffer) {
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    private static int checkBufferSize(final int bufferSize) {
+        if (bufferSize < Long.BYTES) {
+            throw new IllegalArgumentException("Buffer size must be at least " + Long.BYTES + "!");
+        }
+        return bufferSize;
+    }
+
+    /**
+     * Ensures there is room for at least the given number of bytes in the
+     * buffer, which must be no greater than the size of the buffer.
+     *
+     * @param length The number of bytes
+     * @throws IOException Should an IO error occur
+     */
+    private void require(final int length) throws IOException {
+        if (this.buffer.length - this.position < length) {
+            this.flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (this.position > 0) {
+            this.out.write(this.buffer, 0, this.position);
+            this.position = 0;
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.require(Byte.BYTES);
+        this.buffer[this.position++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (len >= this.buffer.length) {
+            // Large writes go straight to the stream, rather than through the buffer
+            this.flushBuffer();
+            this.out.write(b, off, len);
+            return;
+        }
+
+        this.require(len);
+        System.arraycopy(b, off, this.buffer, this.position, len);
+        this.position += len;
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.write(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        this.write(v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        this.require(Short.BYTES);
+        final byte[] b = this.buffer;
+        final int p = this.position;
+        b[p] = (byte) (v >>> 8);
+        b[p + 1] = (byte) v;
+        this.position += Short.BYTES;
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        this.writeShort(v);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        this.require(Integer.BYTES);
+        final byte[] b = this.buffer;
+        final int p = this.position;
+        b[p] = (byte) (v >>> 24);
+        b[p + 1] = (byte) (v >>> 16);
+        b[p + 2] = (byte) (v >>> 8);
+        b[p + 3] = (byte) v;
+        this.position += Integer.BYTES;
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        this.require(Long.BYTES);
+        final byte[] b = this.buffer;
+        final int p = this.position;
+        b[p] = (byte) (v >>> 56);
+        b[p + 1] = (byte) (v >>> 48);
+        b[p + 2] = (byte) (v >>> 40);
+        b[p + 3] = (byte) (v >>> 32);
+        b[p + 4] = (byte) (v >>> 24);
+        b[p + 5] = (byte) (v >>> 16);
+        b[p + 6] = (byte) (v >>> 8);
+        b[p + 7] = (byte) v;
+        this.position += Long.BYTES;
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        this.writeInt(Float.floatToIntBits(v));
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        this.writeLong(Double.doubleToLongBits(v));
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            this.write(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            this.writeChar(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        final int length = ModifiedUtf8.encodedLength(s);
+        if (length > 0xFFFF) {
+            throw new UTFDataFormatException("Encoded string too long: " + length + " bytes");
+        }
+        this.writeShort(length);
+
+        final boolean ascii = length == s.length();
+        if (length > this.buffer.length) {
+            final byte[] bytes = new byte[length];
+            ModifiedUtf8.encode(s, ascii, bytes, 0);
+            this.write(bytes);
+            return;
+        }
+
+        this.require(length);
+        this.position = ModifiedUtf8.encode(s, ascii, this.buffer, this.position);
+    }
+
+    @Override
+    public void writeInts(final int[] values, int offset, int length) throws IOException {
+        while (length > 0) {
+            this.require(Integer.BYTES);
+            final int count = Math.min(length, (this.buffer.length - this.position) / Integer.BYTES);
+            ByteBuffer.wrap(this.buffer, this.position, count * Integer.BYTES).asIntBuffer().put(values, offset, count);
+            this.position += count * Integer.BYTES;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void writeLongs(final long[] values, int offset, int length) throws IOException {
+        while (length > 0) {
+            this.require(Long.BYTES);
+            final int count = Math.min(length, (this.buffer.length - this.position) / Long.BYTES);
+            ByteBuffer.wrap(this.buffer, this.position, count * Long.BYTES).asLongBuffer().put(values, offset, count);
+            this.position += count * Long.BYTES;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.flushBuffer();
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flushBuffer();
+        } finally {
+            this.out.close();
+        }
+    }
+
+}
@@ -30,6 +30,7 @@
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Objects;
 
 /**
  * A string tag, using UTF-8 encoding.
@@ -40,6 +41,7 @@
 public class StringTag implements Tag {
 
     private String value;
+    private boolean frozen;
 
     public StringTag() {
     }
@@ -57,8 +59,34 @@ public String getValue() {
         return this.value;
     }
 
+    /**
+     * Freezes the tag, such that it can no longer be
+     * {@link #read(DataInput) read} into.
+     *
+     * @return This tag
+     */
+    @Override
+    public StringTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Creates a copy of the tag, unless it is frozen, in which case it is
+     * returned as is.
+     *
+     * @return The copy, which may be this tag
+     */
+    @Override
+    public StringTag copy() {
+        return this.frozen ? this : new StringTag(this.value);
+    }
+
     @Override
     public void read(final DataInput input) throws IOException {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen tags can't be modified!");
+        }
         this.value = input.readUTF();
     }
 
@@ -67,6 +95,33 @@ public void write(final DataOutput output) throws IOException {
         output.writeUTF(this.value);
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof StringTag)) {
+            return false;
+        }
+        final StringTag that = (StringTag) obj;
+        return Objects.equals(this.value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.value);
+    }
+
+    @Override
+    public int serializedSize() {
+        return 2 + ModifiedUtf8.encodedLength(this.value);
+    }
+
+    @Override
+    public long estimatedHeapSize() {
+        return HeapSize.object(HeapSize.REFERENCE + 1) + HeapSize.string(this.value);
+    }
+
     @Override
     public byte getId() {
         return TAG_STRING;
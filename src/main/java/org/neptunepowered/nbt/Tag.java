@@ -27,7 +27,10 @@
 
 import java.io.DataInput;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 /**
  * A tag, used for (de)serialising binary data.
@@ -58,4 +61,78 @@ public interface Tag {
      */
     byte getId();
 
+    /**
+     * Gets the size of the tag, as it would be
+     * {@link #write(DataOutput) written}, without writing it.
+     *
+     * <p>The size excludes the type and name that precede the tag within a
+     * compound.</p>
+     *
+     * @return The size, in bytes
+     */
+    default int serializedSize() {
+        final DataOutputStream output = new DataOutputStream(new OutputStream() {
+
+            @Override
+            public void write(final int b) {
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+            }
+
+        });
+        try {
+            this.write(output);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return output.size();
+    }
+
+    /**
+     * Gets an approximation of the heap occupied by the tag, and every tag
+     * within it.
+     *
+     * <p>Tags and strings shared between parents, such as pooled names,
+     * are counted once for each parent, so the estimate errs on the side
+     * of overestimating.</p>
+     *
+     * @return The size, in bytes
+     */
+    default long estimatedHeapSize() {
+        return HeapSize.object(0) + this.serializedSize();
+    }
+
+    /**
+     * Freezes the tag, preventing any further modification of it or of the
+     * tags within it, such that it may be shared between threads without
+     * copying or locking.
+     *
+     * <p>Tags holding a single value are frozen in place, such that they
+     * can no longer be {@link #read(DataInput) read} into. Note that the
+     * arrays of array tags are not copied, so must not be modified once
+     * frozen.</p>
+     *
+     * @return The frozen tag, which may be a different instance
+     */
+    default Tag freeze() {
+        return this;
+    }
+
+    /**
+     * Creates a copy of the tag, which may be modified independently of
+     * this tag.
+     *
+     * <p>Tags holding a single value are copied, unless frozen, in which
+     * case they are returned as is. Compounds and lists share the tags
+     * within them with their copies, until the copy accesses them to be
+     * modified.</p>
+     *
+     * @return The copy, which may be this tag
+     */
+    default Tag copy() {
+        return this;
+    }
+
 }
@@ -0,0 +1,139 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link NbtVisitor visitor} that builds the tree of {@link Tag tags}
+ * for the data it visits, as would be read by {@link NbtIo#read(java.io.DataInput)}.
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public class TagBuilder implements NbtVisitor {
+
+    private final Deque<Tag> parents = new ArrayDeque<>();
+    private CompoundTag root;
+
+    /**
+     * Gets the root tag, once it has been visited in its entirety.
+     *
+     * @return The root tag, or {@code null} if it hasn't been visited
+     */
+    public CompoundTag getRoot() {
+        return this.parents.isEmpty() ? this.root : null;
+    }
+
+    private void add(final String name, final Tag tag) {
+        final Tag parent = this.parents.peek();
+        if (parent instanceof CompoundTag) {
+            ((CompoundTag) parent).put(name, tag);
+        } else if (parent instanceof ListTag) {
+            ((ListTag) parent).add(tag);
+        }
+    }
+
+    @Override
+    public void visitCompoundStart(final String name) {
+        final CompoundTag tag = new CompoundTag();
+        if (this.parents.isEmpty()) {
+            this.root = tag;
+        } else {
+            this.add(name, tag);
+        }
+        this.parents.push(tag);
+    }
+
+    @Override
+    public void visitCompoundEnd() {
+        this.parents.pop();
+    }
+
+    @Override
+    public void visitListStart(final String name, final byte type, final int length) {
+        final ListTag tag = new ListTag(type);
+        this.add(name, tag);
+        this.parents.push(tag);
+    }
+
+    @Override
+    public void visitListEnd() {
+        this.parents.pop();
+    }
+
+    @Override
+    public void visitByte(final String name, final byte value) {
+        this.add(name, new ByteTag(value));
+    }
+
+    @Override
+    public void visitShort(final String name, final short value) {
+        this.add(name, new ShortTag(value));
+    }
+
+    @Override
+    public void visitInt(final String name, final int value) {
+        this.add(name, new IntTag(value));
+    }
+
+    @Override
+    public void visitLong(final String name, final long value) {
+        this.add(name, new LongTag(value));
+    }
+
+    @Override
+    public void visitFloat(final String name, final float value) {
+        this.add(name, new FloatTag(value));
+    }
+
+    @Override
+    public void visitDouble(final String name, final double value) {
+        this.add(name, new DoubleTag(value));
+    }
+
+    @Override
+    public void visitByteArray(final String name, final byte[] value) {
+        this.add(name, new ByteArrayTag(value));
+    }
+
+    @Override
+    public void visitString(final String name, final String value) {
+        this.add(name, new StringTag(value));
+    }
+
+    @Override
+    public void visitIntArray(final String name, final int[] value) {
+        this.add(name, new IntArrayTag(value));
+    }
+
+    @Override
+    public void visitLongArray(final String name, final long[] value) {
+        this.add(name, new LongArrayTag(value));
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.neptunepowered.nbt.NbtConstants.TAG_COMPOUND;
+import static org.neptunepowered.nbt.NbtConstants.TAG_LIST;
+import static org.neptunepowered.nbt.NbtConstants.TAG_STRING;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of tags, used to share a single instance between every
+ * equal compound, list or string tag - such as the enchantments or names
+ * repeated across a great many items.
+ *
+ * <p>Tags are {@link Tag#freeze() frozen} as they are pooled, as they may
+ * then be shared by any number of parents. The compounds returned by
+ * {@link NbtIo#readStream(java.io.InputStream, KeyPool, TagPool)} remain
+ * modifiable, and as the tags within them are frozen, they are
+ * {@link CompoundTag#copy() copied} only once they are accessed.</p>
+ *
+ * <p>The pool is a fixed size table, with newer tags displacing older ones
+ * on collision, and is safe for use by multiple threads without locking.
+ * Tags are only weakly held, so the pool never keeps a tag in memory that
+ * is otherwise no longer in use.</p>
+ *
+ * @author Jamie Mansfield
+ * @since 0.1.0
+ */
+public final class TagPool {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    // Entries are read and written through the array's volatile accessors,
+    // as neither the referent of a weak reference nor the pooled tag (once
+    // its hash is cached) is safely published by final fields alone
+    private final AtomicReferenceArray<Entry> entries;
+
+    /**
+     * Creates a pool with the default capacity.
+     */
+    public TagPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a pool with room for at least the given number of tags.
+     *
+     * @param capacity The capacity
+     */
+    public TagPool(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive!");
+        }
+        // Round up to a power of two, so the index can be found by masking
+        this.entries = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+    }
+
+    /**
+     * Gets the pooled tag equal to the given tag, freezing and pooling the
+     * given tag should there not yet be one.
+     *
+     * <p>Only compound, list and string tags are pooled, with any other
+     * tag returned as is.</p>
+     *
+     * @param tag The tag
+     * @return The pooled tag
+     */
+    public Tag intern(final Tag tag) {
+        switch (tag.getId()) {
+            case TAG_COMPOUND:
+            case TAG_LIST:
+            case TAG_STRING:
+                break;
+            default:
+                return tag;
+        }
+
+        final Tag frozen = tag.freeze();
+        final int hash = frozen.hashCode();
+        final int index = (hash ^ (hash >>> 16)) & (this.entries.length() - 1);
+
+        final Entry entry = this.entries.get(index);
+        if (entry != null && entry.hash == hash) {
+            final Tag pooled = entry.get();
+            if (pooled != null && pooled.equals(frozen)) {
+                return pooled;
+            }
+        }
+
+        this.entries.set(index, new Entry(frozen, hash));
+        return frozen;
+    }
+
+    /**
+     * A pooled tag, alongside its hash.
+     */
+    private static final class Entry extends WeakReference<Tag> {
+
+        final int hash;
+
+        Entry(final Tag tag, final int hash) {
+            super(tag);
+            this.hash = hash;
+        }
+
+    }
+
+}
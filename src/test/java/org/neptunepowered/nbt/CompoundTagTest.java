@@ -0,0 +1,253 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests for {@link CompoundTag}.
+ *
+ * @author Jamie Mansfield
+ */
+public class CompoundTagTest {
+
+    /**
+     * Creates a compound holding a nested compound, list and array, with
+     * enough padding tags to be stored either compactly or in a map.
+     */
+    private static CompoundTag compound(final int padding) {
+        final CompoundTag inner = new CompoundTag();
+        inner.putInt("value", 1);
+
+        final ListTag list = new ListTag();
+        list.add(new CompoundTag());
+
+        final CompoundTag compound = new CompoundTag();
+        compound.put("inner", inner);
+        compound.put("list", list);
+        compound.putIntArray("array", new int[] {1, 2, 3});
+        for (int i = 0; i < padding; i++) {
+            compound.putInt("padding" + i, i);
+        }
+        return compound;
+    }
+
+    private static void modify(final CompoundTag compound) {
+        compound.getCompound("inner").putInt("value", 2);
+        ((CompoundTag) ((ListTag) compound.get("list")).get(0)).putString("added", "value");
+        compound.getIntArray("array")[0] = 42;
+    }
+
+    @Test
+    public void modifyingCopyLeavesOriginal() {
+        for (final int padding : new int[] {0, 20}) {
+            final CompoundTag original = compound(padding);
+            final CompoundTag copy = original.copy();
+            modify(copy);
+
+            assertEquals(compound(padding), original);
+            assertEquals(2, copy.getCompound("inner").getInt("value"));
+            assertEquals(42, copy.getIntArray("array")[0]);
+        }
+    }
+
+    @Test
+    public void modifyingOriginalLeavesCopy() {
+        for (final int padding : new int[] {0, 20}) {
+            final CompoundTag original = compound(padding);
+            final CompoundTag copy = original.copy();
+            modify(original);
+
+            assertEquals(compound(padding), copy);
+            assertEquals(2, original.getCompound("inner").getInt("value"));
+            assertEquals(42, original.getIntArray("array")[0]);
+        }
+    }
+
+    @Test
+    public void modifyingBothSides() {
+        final CompoundTag original = compound(0);
+        final CompoundTag first = original.copy();
+        final CompoundTag second = first.copy();
+        first.getCompound("inner").putInt("value", 2);
+        second.getCompound("inner").putInt("value", 3);
+        original.getCompound("inner").putInt("value", 4);
+
+        assertEquals(4, original.getCompound("inner").getInt("value"));
+        assertEquals(2, first.getCompound("inner").getInt("value"));
+        assertEquals(3, second.getCompound("inner").getInt("value"));
+    }
+
+    @Test
+    public void tagsAreCopiedOnlyOnce() {
+        final CompoundTag original = compound(0);
+        final CompoundTag copy = original.copy();
+
+        // Shared until accessed, then each compound has its own
+        assertSame(original.peek("inner"), copy.peek("inner"));
+        final CompoundTag inner = copy.getCompound("inner");
+        assertNotSame(original.peek("inner"), inner);
+        assertSame(inner, copy.getCompound("inner"));
+        final CompoundTag originalInner = original.getCompound("inner");
+        assertSame(originalInner, original.getCompound("inner"));
+    }
+
+    @Test
+    public void copiesOfFrozenCompounds() {
+        final CompoundTag frozen = compound(0).freeze();
+        final CompoundTag copy = frozen.copy();
+        assertFalse(copy.isFrozen());
+        modify(copy);
+
+        assertEquals(compound(0), frozen);
+        assertTrue(frozen.getCompound("inner").isFrozen());
+        assertArrayEquals(new int[] {42, 2, 3}, copy.getIntArray("array"));
+    }
+
+    @Test
+    public void freezingFreezesEverything() {
+        final CompoundTag frozen = compound(0).freeze();
+        assertTrue(frozen.isFrozen());
+        assertTrue(frozen.getCompound("inner").isFrozen());
+        assertTrue(((ListTag) frozen.get("list")).isFrozen());
+        assertTrue(((CompoundTag) ((ListTag) frozen.get("list")).get(0)).isFrozen());
+
+        // Nothing is copied when read, as nothing can be modified
+        assertSame(frozen.get("inner"), frozen.get("inner"));
+        assertSame(frozen, frozen.freeze());
+    }
+
+    @Test
+    public void frozenCompoundsRejectModification() {
+        final CompoundTag frozen = compound(0).freeze();
+        final Runnable[] modifications = {
+                () -> frozen.putInt("value", 1),
+                () -> frozen.remove("inner"),
+                () -> frozen.getCompound("inner").putInt("value", 2),
+                () -> ((ListTag) frozen.get("list")).add(new CompoundTag()),
+                () -> ((ListTag) frozen.get("list")).set(0, new CompoundTag()),
+        };
+        for (final Runnable modification : modifications) {
+            try {
+                modification.run();
+                fail("Modified a frozen compound");
+            } catch (final UnsupportedOperationException ignored) {
+            }
+        }
+        assertEquals(compound(0), frozen);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void frozenTagsRejectReads() throws IOException {
+        final CompoundTag frozen = compound(0).freeze();
+        frozen.peek("array").read(new DataInputStream(new ByteArrayInputStream(new byte[] {0, 0, 0, 0})));
+    }
+
+    @Test
+    public void withSharesUntouchedTags() {
+        final CompoundTag frozen = compound(20).freeze();
+        final CompoundTag inner = new CompoundTag();
+        inner.putInt("value", 2);
+
+        final CompoundTag updated = frozen.with("inner", inner);
+        assertTrue(updated.isFrozen());
+        assertTrue(inner.isFrozen());
+        assertEquals(2, updated.getCompound("inner").getInt("value"));
+        assertSame(frozen.peek("list"), updated.peek("list"));
+        assertSame(frozen.peek("array"), updated.peek("array"));
+        assertEquals(compound(20), frozen);
+
+        final CompoundTag removed = updated.without("list");
+        assertTrue(removed.isFrozen());
+        assertNull(removed.get("list"));
+        assertSame(inner, removed.peek("inner"));
+        assertSame(frozen.peek("list"), updated.peek("list"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void withRequiresFrozen() {
+        compound(0).with("inner", new CompoundTag());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void withoutRequiresFrozen() {
+        compound(0).without("inner");
+    }
+
+    @Test
+    public void frozenCompoundsEqualModifiable() {
+        final CompoundTag frozen = compound(20).freeze();
+        assertEquals(compound(20), frozen);
+        assertEquals(frozen, compound(20));
+        assertEquals(compound(20).hashCode(), frozen.hashCode());
+        assertEquals(frozen.hashCode(), frozen.hashCode());
+    }
+
+    @Test
+    public void frozenCompoundsAreShared() throws InterruptedException, ExecutionException {
+        final CompoundTag template = compound(20).freeze();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<CompoundTag>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                final int value = i;
+                futures.add(executor.submit(() -> {
+                    // Read without copying, and updated without modifying
+                    assertEquals(1, template.getCompound("inner").getInt("value"));
+                    return template.with("value", new IntTag(value));
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                final CompoundTag updated = futures.get(i).get();
+                assertEquals(i, updated.getInt("value"));
+                assertSame(template.peek("inner"), updated.peek("inner"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(compound(20), template);
+    }
+
+}
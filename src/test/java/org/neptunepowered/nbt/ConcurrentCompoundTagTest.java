@@ -0,0 +1,206 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests for {@link ConcurrentCompoundTag}.
+ *
+ * @author Jamie Mansfield
+ */
+public class ConcurrentCompoundTagTest {
+
+    private static final int THREADS = 4;
+
+    private static CompoundTag pair(final int value) {
+        final CompoundTag pair = new CompoundTag();
+        pair.putInt("a", value);
+        pair.putInt("b", value);
+        return pair;
+    }
+
+    @Test
+    public void concurrentPutsAreKept() throws InterruptedException, ExecutionException {
+        final ConcurrentCompoundTag compound = new ConcurrentCompoundTag();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int offset = thread * 1000;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        compound.putInt("tag" + (offset + i), offset + i);
+                        // Removed again, every other tag
+                        if (i % 2 == 1) {
+                            compound.remove("tag" + (offset + i));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // No update is lost to another thread's
+        for (int i = 0; i < THREADS * 1000; i++) {
+            if (i % 2 == 0) {
+                assertEquals(i, compound.getInt("tag" + i));
+            } else {
+                assertFalse(compound.contains("tag" + i, NbtConstants.TAG_INT));
+            }
+        }
+    }
+
+    @Test
+    public void snapshotsAreConsistent() throws InterruptedException, ExecutionException, IOException {
+        final ConcurrentCompoundTag compound = new ConcurrentCompoundTag();
+        compound.put("pair", pair(0));
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> writer = executor.submit(() -> {
+                for (int i = 1; running.get(); i++) {
+                    compound.put("pair", pair(i));
+                }
+            });
+
+            // Written while being modified, each save holds a whole pair
+            for (int i = 0; i < 200; i++) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                NbtIo.write(compound, new DataOutputStream(out));
+                final CompoundTag saved = NbtIo.read(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+                final CompoundTag pair = saved.getCompound("pair");
+                assertEquals(pair.getInt("a"), pair.getInt("b"));
+            }
+
+            running.set(false);
+            writer.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void snapshotsAreUnaffected() {
+        final ConcurrentCompoundTag compound = new ConcurrentCompoundTag();
+        compound.putInt("a", 1);
+        final CompoundTag snapshot = compound.snapshot();
+        compound.putInt("a", 2);
+        compound.putInt("b", 3);
+
+        assertTrue(snapshot.isFrozen());
+        assertEquals(1, snapshot.getInt("a"));
+        assertNull(snapshot.get("b"));
+        assertEquals(2, compound.getInt("a"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void tagsAreFrozen() {
+        final ConcurrentCompoundTag compound = new ConcurrentCompoundTag();
+        final CompoundTag inner = new CompoundTag();
+        compound.put("inner", inner);
+        assertTrue(inner.isFrozen());
+        compound.getCompound("inner").putInt("a", 1);
+    }
+
+    @Test
+    public void withAndWithoutLeaveCompound() {
+        final ConcurrentCompoundTag compound = new ConcurrentCompoundTag();
+        compound.putInt("a", 1);
+        compound.putInt("b", 2);
+
+        final CompoundTag with = compound.with("c", new IntTag(3));
+        final CompoundTag without = compound.without("a");
+        assertTrue(with.isFrozen());
+        assertTrue(without.isFrozen());
+        assertEquals(3, with.getInt("c"));
+        assertNull(without.get("a"));
+        assertEquals(2, without.getInt("b"));
+
+        assertNull(compound.get("c"));
+        assertEquals(1, compound.getInt("a"));
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        final ConcurrentCompoundTag compound = new ConcurrentCompoundTag();
+        compound.putInt("a", 1);
+        final ConcurrentCompoundTag copy = compound.copy();
+        copy.putInt("a", 2);
+        compound.remove("a");
+
+        assertNull(compound.get("a"));
+        assertEquals(2, copy.getInt("a"));
+    }
+
+    @Test
+    public void readMergesIntoCompound() throws IOException {
+        final CompoundTag read = new CompoundTag();
+        read.putInt("b", 2);
+        read.putInt("c", 3);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        read.write(new DataOutputStream(out));
+
+        final ConcurrentCompoundTag compound = new ConcurrentCompoundTag();
+        compound.putInt("a", 1);
+        compound.putInt("b", 1);
+        compound.read(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+
+        assertEquals(1, compound.getInt("a"));
+        assertEquals(2, compound.getInt("b"));
+        assertEquals(3, compound.getInt("c"));
+        assertTrue(compound.snapshot().isFrozen());
+    }
+
+}
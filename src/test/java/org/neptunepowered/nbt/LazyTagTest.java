@@ -0,0 +1,148 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Tests for {@link LazyTag lazily read} compounds, read through
+ * {@link NbtIo#readLazy(ByteBuffer)}.
+ *
+ * @author Jamie Mansfield
+ */
+public class LazyTagTest {
+
+    private static CompoundTag chunk() {
+        final CompoundTag level = new CompoundTag();
+        level.putInt("xPos", 4);
+        level.putLongArray("heightmap", new long[] {1L, 2L, 3L});
+
+        final ListTag sections = new ListTag();
+        for (byte y = 0; y < 4; y++) {
+            final CompoundTag section = new CompoundTag();
+            section.putByte("Y", y);
+            section.putByteArray("blocks", new byte[4096]);
+            sections.add(section);
+        }
+        level.put("Sections", sections);
+
+        final CompoundTag chunk = new CompoundTag();
+        chunk.putInt("DataVersion", 1343);
+        chunk.put("Level", level);
+        return chunk;
+    }
+
+    private static byte[] write(final CompoundTag tag) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NbtIo.write(tag, new DataOutputStream(out));
+        return out.toByteArray();
+    }
+
+    @Test
+    public void childrenAreDecodedOnAccess() throws IOException {
+        final CompoundTag lazy = NbtIo.readLazy(ByteBuffer.wrap(write(chunk())));
+        assertTrue(lazy.lookup("Level") instanceof LazyTag);
+        assertFalse(lazy.lookup("DataVersion") instanceof LazyTag);
+
+        final CompoundTag level = lazy.getCompound("Level");
+        assertFalse(lazy.lookup("Level") instanceof LazyTag);
+        assertSame(level, lazy.getCompound("Level"));
+        assertEquals(4, level.getInt("xPos"));
+        assertArrayEquals(new long[] {1L, 2L, 3L}, level.getLongArray("heightmap"));
+    }
+
+    @Test
+    public void untouchedChildrenAreWrittenAsRead() throws IOException {
+        final byte[] bytes = write(chunk());
+        final CompoundTag lazy = NbtIo.readLazy(ByteBuffer.wrap(bytes));
+        assertArrayEquals(bytes, write(lazy));
+
+        // Only the accessed child is written anew
+        lazy.getCompound("Level").putInt("xPos", 5);
+        final CompoundTag expected = chunk();
+        expected.getCompound("Level").putInt("xPos", 5);
+        assertArrayEquals(write(expected), write(lazy));
+    }
+
+    @Test
+    public void equalToEagerlyRead() throws IOException {
+        final byte[] bytes = write(chunk());
+        final CompoundTag lazy = NbtIo.readLazy(ByteBuffer.wrap(bytes));
+        final CompoundTag eager = NbtIo.read(ByteBuffer.wrap(bytes));
+
+        assertEquals(eager, lazy);
+        assertEquals(lazy, eager);
+        assertEquals(eager.hashCode(), lazy.hashCode());
+        // Comparing doesn't decode the children into the compound
+        assertTrue(lazy.lookup("Level") instanceof LazyTag);
+    }
+
+    @Test
+    public void comparingDecodesOnce() throws IOException {
+        final CompoundTag lazy = NbtIo.readLazy(ByteBuffer.wrap(write(chunk())));
+        final LazyTag level = (LazyTag) lazy.lookup("Level");
+
+        final int hash = level.hashCode();
+        assertSame(level.view(), level.view());
+        assertEquals(hash, level.hashCode());
+        assertTrue(level.equals(chunk().get("Level")));
+        // Those handed out for modification are decoded anew
+        assertNotSame(level.view(), level.decode());
+    }
+
+    @Test
+    public void copiesDecodeIndependently() throws IOException {
+        final CompoundTag lazy = NbtIo.readLazy(ByteBuffer.wrap(write(chunk())));
+        final CompoundTag copy = lazy.copy();
+        lazy.hashCode();
+
+        copy.getCompound("Level").putInt("xPos", 5);
+        assertEquals(4, lazy.getCompound("Level").getInt("xPos"));
+        assertEquals(chunk(), lazy);
+        assertEquals(5, copy.getCompound("Level").getInt("xPos"));
+    }
+
+    @Test
+    public void frozenLazyCompounds() throws IOException {
+        final CompoundTag frozen = NbtIo.readLazy(ByteBuffer.wrap(write(chunk()))).freeze();
+        assertFalse(frozen.lookup("Level") instanceof LazyTag);
+        assertTrue(frozen.getCompound("Level").isFrozen());
+        assertEquals(chunk(), frozen);
+    }
+
+}
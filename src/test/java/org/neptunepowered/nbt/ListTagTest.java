@@ -0,0 +1,128 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link ListTag}.
+ *
+ * @author Jamie Mansfield
+ */
+public class ListTagTest {
+
+    private static ListTag list() {
+        final ListTag list = new ListTag();
+        for (int i = 0; i < 3; i++) {
+            final CompoundTag element = new CompoundTag();
+            element.putInt("index", i);
+            list.add(element);
+        }
+        return list;
+    }
+
+    @Test
+    public void modifyingCopyLeavesOriginal() {
+        final ListTag original = list();
+        final ListTag copy = original.copy();
+        ((CompoundTag) copy.get(1)).putInt("index", 42);
+        copy.add(new CompoundTag());
+
+        assertEquals(list(), original);
+        assertEquals(42, ((CompoundTag) copy.get(1)).getInt("index"));
+    }
+
+    @Test
+    public void modifyingOriginalLeavesCopy() {
+        final ListTag original = list();
+        final ListTag copy = original.copy();
+        ((CompoundTag) original.get(1)).putInt("index", 42);
+        original.set(2, new CompoundTag());
+
+        assertEquals(list(), copy);
+        assertEquals(42, ((CompoundTag) original.get(1)).getInt("index"));
+    }
+
+    @Test
+    public void primitiveListsAreCopied() {
+        final ListTag original = new ListTag();
+        original.addInt(1);
+        final ListTag copy = original.copy();
+        copy.addInt(2);
+        original.set(0, new IntTag(3));
+
+        assertEquals(1, original.size());
+        assertEquals(3, original.getInt(0));
+        assertEquals(1, copy.getInt(0));
+    }
+
+    @Test
+    public void untouchedTagsAreShared() {
+        final ListTag original = list();
+        final ListTag copy = original.copy();
+        copy.get(0);
+
+        assertSame(original.peek(1), copy.peek(1));
+        assertSame(copy.get(0), copy.get(0));
+    }
+
+    @Test
+    public void withSharesUntouchedTags() {
+        final ListTag frozen = list().freeze();
+        final CompoundTag replacement = new CompoundTag();
+        replacement.putInt("index", 42);
+
+        final ListTag updated = frozen.with(1, replacement);
+        assertTrue(updated.isFrozen());
+        assertTrue(replacement.isFrozen());
+        assertSame(replacement, updated.get(1));
+        assertSame(frozen.get(0), updated.get(0));
+        assertEquals(list(), frozen);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void withRequiresFrozen() {
+        list().with(0, new CompoundTag());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void frozenListsRejectAdding() {
+        final ListTag frozen = new ListTag();
+        frozen.addInt(1);
+        frozen.freeze().addInt(2);
+    }
+
+    @Test
+    public void frozenListsEqualModifiable() {
+        assertEquals(list(), list().freeze());
+        assertEquals(list().hashCode(), list().freeze().hashCode());
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests for the {@link NbtCompression#LZ4 LZ4} compression, and its
+ * framing of blocks.
+ *
+ * @author Jamie Mansfield
+ */
+public class Lz4CompressionTest {
+
+    private static byte[] compress(final byte[] data) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final OutputStream compressed = NbtCompression.LZ4.compress(out)) {
+            compressed.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decompress(final byte[] data) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final InputStream in = NbtCompression.LZ4.decompress(new ByteArrayInputStream(data))) {
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Frames the given block, as written by the compressing stream, and
+     * ends the stream.
+     */
+    private static byte[] frame(final int length, final byte[] block) {
+        final byte[] framed = new byte[8 + block.length + 4];
+        framed[0] = (byte) (length >>> 24);
+        framed[1] = (byte) (length >>> 16);
+        framed[2] = (byte) (length >>> 8);
+        framed[3] = (byte) length;
+        framed[4] = (byte) (block.length >>> 24);
+        framed[5] = (byte) (block.length >>> 16);
+        framed[6] = (byte) (block.length >>> 8);
+        framed[7] = (byte) block.length;
+        System.arraycopy(block, 0, framed, 8, block.length);
+        return framed;
+    }
+
+    @Test
+    public void empty() throws IOException {
+        final byte[] compressed = compress(new byte[0]);
+        assertEquals(4, compressed.length);
+        assertArrayEquals(new byte[0], decompress(compressed));
+    }
+
+    @Test
+    public void compressibleAcrossBlocks() throws IOException {
+        // Several blocks of repetitive text, ending part way through a block
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 3 * Lz4Compression.BLOCK_SIZE + 100; i++) {
+            text.append("minecraft:stone,").append(i % 100).append(';');
+        }
+        final byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        final byte[] compressed = compress(data);
+        assertTrue(compressed.length < data.length / 2);
+        assertArrayEquals(data, decompress(compressed));
+    }
+
+    @Test
+    public void overlappingMatches() throws IOException {
+        // Runs of a single byte are matched against themselves
+        final byte[] data = new byte[10000];
+        Arrays.fill(data, 100, 9000, (byte) 7);
+
+        final byte[] compressed = compress(data);
+        assertTrue(compressed.length < 200);
+        assertArrayEquals(data, decompress(compressed));
+    }
+
+    @Test
+    public void incompressible() throws IOException {
+        final byte[] data = new byte[2 * Lz4Compression.BLOCK_SIZE + 1];
+        new Random(0).nextBytes(data);
+
+        // Stored as is, with only the framing added
+        final byte[] compressed = compress(data);
+        assertEquals(data.length + 3 * 8 + 4, compressed.length);
+        assertArrayEquals(data, decompress(compressed));
+    }
+
+    @Test
+    public void singleBytes() throws IOException {
+        final byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 10);
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final OutputStream compressed = NbtCompression.LZ4.compress(out)) {
+            for (final byte b : data) {
+                compressed.write(b);
+            }
+        }
+
+        try (final InputStream in = NbtCompression.LZ4.decompress(new ByteArrayInputStream(out.toByteArray()))) {
+            for (final byte b : data) {
+                assertEquals(b & 0xFF, in.read());
+            }
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void compounds() throws IOException {
+        final CompoundTag tag = new CompoundTag();
+        tag.putString("id", "minecraft:chest");
+        tag.putLongArray("data", new long[4096]);
+        final ListTag items = new ListTag();
+        for (int i = 0; i < 27; i++) {
+            final CompoundTag item = new CompoundTag();
+            item.putByte("Slot", (byte) i);
+            item.putString("id", "minecraft:stone");
+            items.add(item);
+        }
+        tag.put("Items", items);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NbtIo.writeCompressedStream(tag, out, NbtCompression.LZ4);
+        assertEquals(tag, NbtIo.readCompressedStream(new ByteArrayInputStream(out.toByteArray()), NbtCompression.LZ4));
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedStream() throws IOException {
+        final byte[] data = new byte[1000];
+        final byte[] compressed = compress(data);
+        decompress(Arrays.copyOf(compressed, compressed.length - 5));
+    }
+
+    @Test(expected = EOFException.class)
+    public void missingEnd() throws IOException {
+        final byte[] compressed = compress(new byte[1000]);
+        decompress(Arrays.copyOf(compressed, compressed.length - 4));
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidBlockLengths() throws IOException {
+        decompress(frame(Lz4Compression.BLOCK_SIZE + 1, new byte[10]));
+    }
+
+    @Test(expected = IOException.class)
+    public void compressedLongerThanBlock() throws IOException {
+        decompress(frame(4, new byte[8]));
+    }
+
+    @Test(expected = IOException.class)
+    public void offsetOutOfRange() throws IOException {
+        // A match, with no literals before it, referring back five bytes
+        decompress(frame(16, new byte[] {0x00, 0x05, 0x00}));
+    }
+
+    @Test(expected = IOException.class)
+    public void blockShorterThanLength() throws IOException {
+        // Three literals, where the block claims to hold four bytes
+        decompress(frame(4, new byte[] {0x30, 1, 2}));
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Tests for each {@link NbtFormat format}, reading back what is written.
+ *
+ * @author Jamie Mansfield
+ */
+public class NbtFormatTest {
+
+    private static final NbtFormat[] FORMATS = {
+            NbtFormat.JAVA, NbtFormat.JAVA_NETWORK, NbtFormat.BEDROCK, NbtFormat.BEDROCK_NETWORK,
+    };
+
+    private static CompoundTag compound() {
+        final CompoundTag compound = new CompoundTag();
+        compound.putByte("byte", (byte) -1);
+        compound.putShort("short", (short) -300);
+        compound.putInt("int", Integer.MIN_VALUE);
+        compound.putInt("small", -1);
+        compound.putLong("long", Long.MAX_VALUE);
+        compound.putFloat("float", 1.5f);
+        compound.putDouble("double", -0.25);
+        compound.putString("string", "été");
+        compound.putByteArray("bytes", new byte[] {1, 2, 3});
+        compound.putIntArray("ints", new int[] {0, -1, 1 << 30});
+        compound.putLongArray("longs", new long[] {Long.MIN_VALUE, 1L});
+
+        final ListTag list = new ListTag();
+        for (int i = 0; i < 200; i++) {
+            final CompoundTag element = new CompoundTag();
+            element.putInt("index", i);
+            list.add(element);
+        }
+        compound.put("list", list);
+
+        final CompoundTag nested = new CompoundTag();
+        nested.putString("name", "nested");
+        compound.put("nested", nested);
+        return compound;
+    }
+
+    private static byte[] write(final CompoundTag tag, final NbtFormat format) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NbtIo.write(tag, new DataOutputStream(out), format);
+        return out.toByteArray();
+    }
+
+    private static CompoundTag read(final byte[] bytes, final NbtFormat format) throws IOException {
+        return NbtIo.read(new DataInputStream(new ByteArrayInputStream(bytes)), format);
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        for (final NbtFormat format : FORMATS) {
+            final byte[] bytes = write(compound(), format);
+            assertEquals(compound(), read(bytes, format));
+            assertEquals(compound(), NbtIo.read(ByteBuffer.wrap(bytes), format));
+        }
+    }
+
+    @Test
+    public void bedrockIsLittleEndian() throws IOException {
+        final CompoundTag tag = new CompoundTag();
+        tag.putInt("a", 1);
+
+        // The root type and empty name, then the int's type, name and value
+        assertArrayEquals(new byte[] {10, 0, 0, 3, 1, 0, 'a', 1, 0, 0, 0, 0}, write(tag, NbtFormat.BEDROCK));
+        assertArrayEquals(new byte[] {10, 0, 0, 3, 0, 1, 'a', 0, 0, 0, 1, 0}, write(tag, NbtFormat.JAVA));
+    }
+
+    @Test
+    public void bedrockNetworkUsesVarInts() throws IOException {
+        final CompoundTag tag = new CompoundTag();
+        tag.putInt("a", -1);
+        tag.putLong("b", 64L);
+
+        // Lengths of names are unsigned varints, while values are zigzag
+        // encoded, so -1 is 1 and 64 is 128
+        assertArrayEquals(new byte[] {10, 0, 3, 1, 'a', 1, 4, 1, 'b', (byte) 0x80, 1, 0},
+                write(tag, NbtFormat.BEDROCK_NETWORK));
+    }
+
+    @Test
+    public void lazyTagsAreTranscoded() throws IOException {
+        // Lazily read tags hold the Java layout, which must not be copied
+        // out as is in any other
+        for (final NbtFormat format : FORMATS) {
+            final CompoundTag lazy = NbtIo.readLazy(ByteBuffer.wrap(write(compound(), NbtFormat.JAVA)));
+            assertEquals(compound(), read(write(lazy, format), format));
+        }
+    }
+
+}
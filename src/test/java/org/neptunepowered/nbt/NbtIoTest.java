@@ -0,0 +1,283 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tests for {@link NbtIo}.
+ *
+ * @author Jamie Mansfield
+ */
+public class NbtIoTest {
+
+    private static final byte[] ARRAYS = {
+            NbtConstants.TAG_BYTE_ARRAY, NbtConstants.TAG_INT_ARRAY, NbtConstants.TAG_LONG_ARRAY,
+    };
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static CompoundTag compound() {
+        final CompoundTag compound = new CompoundTag();
+        compound.putString("id", "minecraft:chest");
+        compound.putIntArray("ints", new int[] {1, -1});
+        compound.putLongArray("longs", new long[] {Long.MIN_VALUE});
+        final ListTag list = new ListTag();
+        list.addShort((short) 1);
+        compound.put("list", list);
+        return compound;
+    }
+
+    private static byte[] write(final CompoundTag tag) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NbtIo.write(tag, new DataOutputStream(out));
+        return out.toByteArray();
+    }
+
+    /**
+     * Creates a root compound holding a single list, named "l", of the
+     * given type and claimed length - with nothing following it.
+     */
+    private static byte[] list(final byte type, final int length) {
+        return ByteBuffer.allocate(3 + 4 + 1 + 4)
+                .put(NbtConstants.TAG_COMPOUND).putShort((short) 0)
+                .put(NbtConstants.TAG_LIST).putShort((short) 1).put((byte) 'l')
+                .put(type).putInt(length)
+                .array();
+    }
+
+    /**
+     * Creates a root compound holding a single array, named "a", of the
+     * given type and claimed length - with nothing following it.
+     */
+    private static byte[] array(final byte type, final int length) {
+        return ByteBuffer.allocate(3 + 4 + 4)
+                .put(NbtConstants.TAG_COMPOUND).putShort((short) 0)
+                .put(type).putShort((short) 1).put((byte) 'a')
+                .putInt(length)
+                .array();
+    }
+
+    /**
+     * Reads the given bytes from heap and direct buffers, expecting each
+     * to fail.
+     */
+    private static void assertInvalid(final byte[] bytes) {
+        for (final ByteBuffer buffer : new ByteBuffer[] {ByteBuffer.wrap(bytes), ByteBuffer.allocateDirect(bytes.length)}) {
+            if (buffer.isDirect()) {
+                buffer.put(bytes).flip();
+            }
+            try {
+                NbtIo.read(buffer);
+                fail("Read from buffer");
+            } catch (final IOException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void readBuffers() throws IOException {
+        final byte[] bytes = write(compound());
+        final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 2);
+        direct.put(bytes).put((byte) 1).put((byte) 2).flip();
+
+        assertEquals(compound(), NbtIo.read(ByteBuffer.wrap(bytes)));
+        assertEquals(compound(), NbtIo.read(direct));
+        // Left just beyond the root tag
+        assertEquals(bytes.length, direct.position());
+    }
+
+    @Test
+    public void negativeListLength() {
+        assertInvalid(list(NbtConstants.TAG_INT, -16));
+        assertInvalid(list(NbtConstants.TAG_COMPOUND, -1));
+    }
+
+    @Test(expected = IOException.class)
+    public void negativeListLengthFromStream() throws IOException {
+        NbtIo.read(new DataInputStream(new ByteArrayInputStream(list(NbtConstants.TAG_INT, -16))));
+    }
+
+    @Test
+    public void listLongerThanBuffer() {
+        assertInvalid(list(NbtConstants.TAG_BYTE, 2));
+        assertInvalid(list(NbtConstants.TAG_LONG, 0x7FFFFFF0));
+        assertInvalid(list(NbtConstants.TAG_COMPOUND, 0x7FFFFFF0));
+        assertInvalid(list(NbtConstants.TAG_END, 0x7FFFFFF0));
+    }
+
+    @Test
+    public void negativeArrayLength() throws IOException {
+        for (final byte type : ARRAYS) {
+            assertInvalid(array(type, -16));
+            try {
+                NbtIo.read(new DataInputStream(new ByteArrayInputStream(array(type, -16))));
+                fail("Read from stream");
+            } catch (final IOException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void arrayLongerThanBuffer() {
+        for (final byte type : ARRAYS) {
+            assertInvalid(array(type, 1));
+            assertInvalid(array(type, 0x7FFFFFF0));
+        }
+    }
+
+    /**
+     * Writes a region holding the given number of chunks, each of which
+     * records its own coordinates.
+     */
+    private Path region(final String name, final int chunks) throws IOException {
+        final Path path = this.folder.getRoot().toPath().resolve(name);
+        try (final RegionFileWriter writer = new RegionFileWriter(path)) {
+            for (int i = 0; i < chunks; i++) {
+                final CompoundTag chunk = new CompoundTag();
+                chunk.putInt("xPos", i % RegionFile.REGION_SIZE);
+                chunk.putInt("zPos", i / RegionFile.REGION_SIZE);
+                chunk.putLongArray("data", new long[256]);
+                writer.write(i % RegionFile.REGION_SIZE, i / RegionFile.REGION_SIZE, chunk);
+            }
+        }
+        return path;
+    }
+
+    @Test
+    public void readAllRegionsAndFiles() throws IOException {
+        final Path first = this.region("r.0.0.mca", 40);
+        final Path second = this.region("r.1.0.mca", 3);
+        final Path level = this.folder.getRoot().toPath().resolve("level.dat");
+        NbtIo.writeCompressedPath(compound(), level);
+
+        final Set<String> chunks = new HashSet<>();
+        final Set<Path> files = new HashSet<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            NbtIo.readAll(Arrays.asList(first, level, second), executor, 1024 * 1024,
+                    (path, tag) -> {
+                        assertEquals(compound(), tag);
+                        assertTrue(files.add(path));
+                    },
+                    (path, x, z, chunk) -> {
+                        assertEquals(x, chunk.getInt("xPos"));
+                        assertEquals(z, chunk.getInt("zPos"));
+                        assertTrue(chunks.add(path.getFileName() + " " + x + " " + z));
+                    });
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(Collections.singleton(level), files);
+        assertEquals(43, chunks.size());
+        assertTrue(chunks.contains("r.0.0.mca 7 1"));
+        assertTrue(chunks.contains("r.1.0.mca 2 0"));
+
+        // Closed once read, so may be removed
+        Files.delete(first);
+        Files.delete(second);
+    }
+
+    @Test
+    public void readAllWithinBound() throws IOException {
+        final Path region = this.region("r.0.0.mca", 20);
+        final int[] outstanding = new int[2];
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Executor counting = task -> {
+            outstanding[0]++;
+            outstanding[1] = Math.max(outstanding[1], outstanding[0]);
+            executor.execute(task);
+        };
+
+        // Each chunk alone exceeds the bound, so is read alone
+        final int[] read = new int[1];
+        try {
+            NbtIo.readAll(Collections.singleton(region), counting, 1, (path, tag) -> fail("Not a region"),
+                    (path, x, z, chunk) -> {
+                        outstanding[0]--;
+                        read[0]++;
+                    });
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(20, read[0]);
+        assertEquals(1, outstanding[1]);
+    }
+
+    @Test
+    public void readAllCorruptChunk() throws IOException {
+        final Path region = this.region("r.0.0.mca", 3);
+        // Break the compression type of the second chunk
+        final byte[] bytes = Files.readAllBytes(region);
+        final int sector = ByteBuffer.wrap(bytes).getInt(Integer.BYTES) >>> 8;
+        bytes[sector * RegionFile.SECTOR_SIZE + Integer.BYTES] = 42;
+        Files.write(region, bytes);
+
+        final Set<Integer> read = new HashSet<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            NbtIo.readAll(Collections.singleton(region), executor, 1024, (path, tag) -> fail("Not a region"),
+                    (path, x, z, chunk) -> read.add(x));
+            fail("Read corrupt chunk");
+        } catch (final IOException ex) {
+            assertTrue(ex.getMessage().contains("chunk 1, 0"));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(new HashSet<>(Arrays.asList(0, 2)), read);
+    }
+
+    @Test(expected = IOException.class)
+    public void truncated() throws IOException {
+        final byte[] bytes = write(compound());
+        NbtIo.read(ByteBuffer.wrap(bytes, 0, bytes.length - 1));
+    }
+
+}
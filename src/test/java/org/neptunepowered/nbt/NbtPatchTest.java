@@ -0,0 +1,345 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Tests for {@link NbtPatch}, checking that each patch survives being
+ * written and read back, and transforms the original into the changed
+ * compound.
+ *
+ * @author Jamie Mansfield
+ */
+public class NbtPatchTest {
+
+    private static CompoundTag item() {
+        final CompoundTag display = new CompoundTag();
+        display.putString("Name", "Sword");
+
+        final ListTag enchantments = new ListTag();
+        for (short id = 0; id < 3; id++) {
+            final CompoundTag enchantment = new CompoundTag();
+            enchantment.putShort("id", id);
+            enchantment.putShort("lvl", (short) 1);
+            enchantments.add(enchantment);
+        }
+
+        final CompoundTag tag = new CompoundTag();
+        tag.put("display", display);
+        tag.put("ench", enchantments);
+
+        final CompoundTag item = new CompoundTag();
+        item.putString("id", "minecraft:diamond_sword");
+        item.putByte("Count", (byte) 1);
+        item.putShort("Damage", (short) 0);
+        item.put("tag", tag);
+        item.putIntArray("data", new int[256]);
+        return item;
+    }
+
+    private static byte[] write(final NbtPatch patch) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        patch.write(new DataOutputStream(out));
+        return out.toByteArray();
+    }
+
+    private static NbtPatch read(final byte[] bytes) throws IOException {
+        return NbtPatch.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Diffs the two compounds, then applies the patch, having been written
+     * and read back, to a copy of the first.
+     */
+    private static NbtPatch roundTrip(final CompoundTag from, final CompoundTag to) throws IOException {
+        final NbtPatch patch = NbtPatch.diff(from, to);
+        final NbtPatch read = read(write(patch));
+        assertEquals(patch.size(), read.size());
+
+        final CompoundTag patched = from.copy();
+        read.apply(patched);
+        assertEquals(to, patched);
+        return patch;
+    }
+
+    @Test
+    public void equalCompoundsGiveEmptyPatch() throws IOException {
+        final CompoundTag item = item();
+        assertTrue(roundTrip(item, item.copy()).isEmpty());
+        assertTrue(roundTrip(item(), item()).isEmpty());
+    }
+
+    @Test
+    public void changedValues() throws IOException {
+        final CompoundTag from = item();
+        final CompoundTag to = from.copy();
+        to.putByte("Count", (byte) 64);
+        to.getCompound("tag").getCompound("display").putString("Name", "Blade");
+
+        final NbtPatch patch = roundTrip(from, to);
+        assertFalse(patch.isEmpty());
+        assertEquals("Sword", from.getCompound("tag").getCompound("display").getString("Name"));
+    }
+
+    @Test
+    public void addedAndRemovedTags() throws IOException {
+        final CompoundTag from = item();
+        final CompoundTag to = from.copy();
+        to.remove("Damage");
+        to.getCompound("tag").remove("display");
+        to.putString("added", "value");
+        to.getCompound("tag").putLong("nested", 1L);
+
+        roundTrip(from, to);
+    }
+
+    @Test
+    public void changedTypes() throws IOException {
+        final CompoundTag from = item();
+        final CompoundTag to = from.copy();
+        to.putString("Count", "one");
+        to.putByteArray("data", new byte[256]);
+        to.getCompound("tag").putInt("display", 7);
+
+        roundTrip(from, to);
+    }
+
+    @Test
+    public void changedListSizesAndTypes() throws IOException {
+        final CompoundTag from = item();
+
+        final CompoundTag longer = from.copy();
+        final CompoundTag enchantment = new CompoundTag();
+        enchantment.putShort("id", (short) 3);
+        ((ListTag) longer.getCompound("tag").get("ench")).add(enchantment);
+        roundTrip(from, longer);
+
+        final CompoundTag emptied = from.copy();
+        emptied.getCompound("tag").put("ench", new ListTag());
+        roundTrip(from, emptied);
+
+        final CompoundTag retyped = from.copy();
+        final ListTag strings = new ListTag();
+        strings.add(new StringTag("a"));
+        strings.add(new StringTag("b"));
+        strings.add(new StringTag("c"));
+        retyped.getCompound("tag").put("ench", strings);
+        roundTrip(from, retyped);
+    }
+
+    @Test
+    public void changedListElements() throws IOException {
+        final CompoundTag from = item();
+        final CompoundTag to = from.copy();
+        final ListTag enchantments = (ListTag) to.getCompound("tag").get("ench");
+        ((CompoundTag) enchantments.get(1)).putShort("lvl", (short) 5);
+
+        // Only the changed element is sent, not the whole list
+        final NbtPatch patch = roundTrip(from, to);
+        assertTrue(patch.size() < enchantments.serializedSize());
+    }
+
+    @Test
+    public void snapshotThenModify() throws IOException {
+        // The snapshot shares its tags with the live compound, until either
+        // modifies them
+        final CompoundTag live = item();
+        final CompoundTag snapshot = live.copy();
+        live.getCompound("tag").getCompound("display").putString("Name", "Blade");
+        ((CompoundTag) ((ListTag) live.getCompound("tag").get("ench")).get(2)).putShort("lvl", (short) 2);
+        live.getIntArray("data")[7] = 1;
+
+        final NbtPatch patch = roundTrip(snapshot, live);
+        assertFalse(patch.isEmpty());
+        assertEquals(item(), snapshot);
+
+        final CompoundTag patched = item();
+        patch.apply(patched);
+        assertEquals(live, patched);
+    }
+
+    @Test
+    public void frozenSnapshotThenModify() throws IOException {
+        final CompoundTag live = item();
+        final CompoundTag snapshot = live.copy().freeze();
+        live.getCompound("tag").getCompound("display").putString("Name", "Blade");
+
+        assertFalse(roundTrip(snapshot, live).isEmpty());
+        assertTrue(roundTrip(snapshot, snapshot.with("Count", new ByteTag((byte) 1))).isEmpty());
+        assertEquals(item(), snapshot);
+    }
+
+    @Test
+    public void nearbyArrayChangesAreMerged() throws IOException {
+        final CompoundTag from = item();
+        final CompoundTag to = from.copy();
+        final int[] data = to.getIntArray("data");
+        // Separated by a single unchanged element, so sent as one range
+        data[10] = 1;
+        data[12] = 1;
+        // Far enough away to be a range of its own
+        data[200] = 1;
+
+        final NbtPatch patch = roundTrip(from, to);
+
+        // The operation, name, type and range count, then each range's
+        // offset and length with its values, and the end of the patch
+        final int expected = 1 + (2 + "data".length()) + 1 + 4 + (8 + 3 * 4) + (8 + 4) + 1;
+        assertEquals(expected, patch.size());
+        assertArrayEquals(new int[256], from.getIntArray("data"));
+    }
+
+    @Test
+    public void widespreadArrayChangesAreReplaced() throws IOException {
+        final CompoundTag from = new CompoundTag();
+        from.putByteArray("bytes", new byte[64]);
+        from.putLongArray("longs", new long[64]);
+
+        final CompoundTag to = from.copy();
+        final byte[] bytes = to.getByteArray("bytes");
+        final long[] longs = to.getLongArray("longs");
+        for (int i = 0; i < 64; i += 2) {
+            bytes[i] = 1;
+            longs[i] = 1;
+        }
+
+        roundTrip(from, to);
+    }
+
+    @Test
+    public void resizedArrays() throws IOException {
+        final CompoundTag from = item();
+        final CompoundTag to = from.copy();
+        to.putIntArray("data", new int[10]);
+
+        roundTrip(from, to);
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedPatch() throws IOException {
+        final CompoundTag from = item();
+        final CompoundTag to = from.copy();
+        to.putByte("Count", (byte) 2);
+
+        final byte[] bytes = write(NbtPatch.diff(from, to));
+        final byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        read(truncated);
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedOperation() throws IOException {
+        final CompoundTag from = new CompoundTag();
+        from.putInt("a", 1);
+        final CompoundTag to = new CompoundTag();
+        to.putInt("a", 2);
+
+        // A put of "a", missing the end of its value and the end of the patch
+        final byte[] bytes = write(NbtPatch.diff(from, to));
+        final byte[] truncated = new byte[bytes.length - 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        truncated[3] -= 2;
+        read(truncated).apply(from);
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownOperation() throws IOException {
+        final CompoundTag from = new CompoundTag();
+        from.putInt("a", 1);
+        final CompoundTag to = new CompoundTag();
+        to.putInt("a", 2);
+
+        final byte[] bytes = write(NbtPatch.diff(from, to));
+        bytes[4] = 42;
+        read(bytes).apply(from);
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownTagType() throws IOException {
+        final CompoundTag from = new CompoundTag();
+        from.putInt("a", 1);
+        final CompoundTag to = new CompoundTag();
+        to.putInt("a", 2);
+
+        // The type follows the operation and the name, "a"
+        final byte[] bytes = write(NbtPatch.diff(from, to));
+        bytes[4 + 1 + 3] = 99;
+        read(bytes).apply(from);
+    }
+
+    @Test(expected = IOException.class)
+    public void trailingData() throws IOException {
+        final CompoundTag from = new CompoundTag();
+        from.putInt("a", 1);
+
+        final byte[] bytes = write(NbtPatch.diff(from, from.copy()));
+        final byte[] trailing = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, trailing, 0, bytes.length);
+        trailing[3]++;
+        read(trailing).apply(from);
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidLength() throws IOException {
+        read(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void patchForAnotherCompound() throws IOException {
+        final CompoundTag from = item();
+        final CompoundTag to = from.copy();
+        to.getCompound("tag").getCompound("display").putString("Name", "Blade");
+
+        final CompoundTag other = item();
+        other.remove("tag");
+        NbtPatch.diff(from, to).apply(other);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void arrayPatchForShorterArray() throws IOException {
+        final CompoundTag from = item();
+        final CompoundTag to = from.copy();
+        to.getIntArray("data")[200] = 1;
+
+        final CompoundTag other = item();
+        other.putIntArray("data", new int[100]);
+        NbtPatch.diff(from, to).apply(other);
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests for {@link RegionFileWriter}, reading what is written back through
+ * {@link RegionFile}.
+ *
+ * @author Jamie Mansfield
+ */
+public class RegionFileWriterTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static CompoundTag chunk(final int x, final int z, final int size) {
+        final CompoundTag chunk = new CompoundTag();
+        chunk.putInt("xPos", x);
+        chunk.putInt("zPos", z);
+        chunk.putByteArray("data", new byte[size]);
+        return chunk;
+    }
+
+    private Path region() {
+        return this.folder.getRoot().toPath().resolve("r.0.0.mca");
+    }
+
+    @Test
+    public void chunksAreReadable() throws IOException {
+        final byte[] types = {RegionFile.COMPRESSION_GZIP, RegionFile.COMPRESSION_ZLIB, RegionFile.COMPRESSION_NONE};
+        for (final byte type : types) {
+            final Path path = this.region();
+            Files.deleteIfExists(path);
+
+            try (final RegionFileWriter writer = new RegionFileWriter(path, type)) {
+                for (int i = 0; i < 40; i++) {
+                    writer.write(i % 32, i / 32, chunk(i % 32, i / 32, i * 500));
+                }
+            }
+            assertEquals(0, Files.size(path) % RegionFile.SECTOR_SIZE);
+
+            final RegionFile region = new RegionFile(path);
+            for (int i = 0; i < 40; i++) {
+                assertEquals(chunk(i % 32, i / 32, i * 500), region.readChunk(i % 32, i / 32));
+                assertEquals(type, region.getCompressionType(i % 32, i / 32));
+                assertTrue(region.getTimestamp(i % 32, i / 32) > 0);
+            }
+            assertFalse(region.hasChunk(8, 1));
+            assertNull(region.readChunk(31, 31));
+        }
+    }
+
+    @Test
+    public void absoluteCoordinates() throws IOException {
+        try (final RegionFileWriter writer = new RegionFileWriter(this.region())) {
+            writer.write(33, -1, chunk(33, -1, 10));
+        }
+        assertEquals(chunk(33, -1, 10), new RegionFile(this.region()).readChunk(1, 31));
+    }
+
+    @Test
+    public void chunksAreKeptWhenReopened() throws IOException {
+        try (final RegionFileWriter writer = new RegionFileWriter(this.region())) {
+            writer.write(0, 0, chunk(0, 0, 100));
+            writer.write(1, 0, chunk(1, 0, 100));
+        }
+        try (final RegionFileWriter writer = new RegionFileWriter(this.region())) {
+            writer.write(1, 0, chunk(1, 0, 200));
+            writer.write(2, 0, chunk(2, 0, 100));
+        }
+
+        final RegionFile region = new RegionFile(this.region());
+        assertEquals(chunk(0, 0, 100), region.readChunk(0, 0));
+        assertEquals(chunk(1, 0, 200), region.readChunk(1, 0));
+        assertEquals(chunk(2, 0, 100), region.readChunk(2, 0));
+    }
+
+    @Test
+    public void removedChunks() throws IOException {
+        try (final RegionFileWriter writer = new RegionFileWriter(this.region())) {
+            writer.write(0, 0, chunk(0, 0, 100));
+            writer.write(1, 0, chunk(1, 0, 100));
+            writer.flush();
+            writer.remove(0, 0);
+        }
+
+        final RegionFile region = new RegionFile(this.region());
+        assertFalse(region.hasChunk(0, 0));
+        assertEquals(0, region.getTimestamp(0, 0));
+        assertEquals(chunk(1, 0, 100), region.readChunk(1, 0));
+    }
+
+    @Test
+    public void rewrittenChunksReuseSectors() throws IOException {
+        // Each chunk occupies three sectors, uncompressed
+        try (final RegionFileWriter writer = new RegionFileWriter(this.region(), RegionFile.COMPRESSION_NONE)) {
+            for (int i = 0; i < 10; i++) {
+                writer.write(0, 0, chunk(0, 0, 10000 + i));
+                writer.flush();
+            }
+        }
+
+        // The old sectors are only reused once the header no longer refers
+        // to them, so two copies are held at most
+        assertEquals((2 + 2 * 3) * RegionFile.SECTOR_SIZE, Files.size(this.region()));
+        assertEquals(chunk(0, 0, 10009), new RegionFile(this.region()).readChunk(0, 0));
+    }
+
+    @Test
+    public void invalidLocationsAreDiscarded() throws IOException {
+        // A header referring to a chunk beyond the end of the file
+        final ByteBuffer header = ByteBuffer.allocate(2 * RegionFile.SECTOR_SIZE);
+        header.putInt(0, (1000 << 8) | 1);
+        Files.write(this.region(), header.array());
+
+        try (final RegionFileWriter writer = new RegionFileWriter(this.region())) {
+            writer.write(1, 0, chunk(1, 0, 100));
+        }
+
+        final RegionFile region = new RegionFile(this.region());
+        assertFalse(region.hasChunk(0, 0));
+        assertEquals(chunk(1, 0, 100), region.readChunk(1, 0));
+        assertEquals(3 * RegionFile.SECTOR_SIZE, Files.size(this.region()));
+    }
+
+    @Test(expected = IOException.class)
+    public void oversizedChunk() throws IOException {
+        try (final RegionFileWriter writer = new RegionFileWriter(this.region(), RegionFile.COMPRESSION_NONE)) {
+            writer.write(0, 0, chunk(0, 0, 256 * RegionFile.SECTOR_SIZE));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownCompression() throws IOException {
+        new RegionFileWriter(this.region(), (byte) 42).close();
+    }
+
+}
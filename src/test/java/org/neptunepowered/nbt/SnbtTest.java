@@ -0,0 +1,191 @@
+/*
+ * This file is part of nbt, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamiemansfield.me/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.neptunepowered.nbt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+/**
+ * Tests for {@link Snbt}, reading and writing stringified NBT.
+ *
+ * @author Jamie Mansfield
+ */
+public class SnbtTest {
+
+    private static CompoundTag everything() {
+        final CompoundTag tag = new CompoundTag();
+        tag.putByte("byte", (byte) -5);
+        tag.putShort("short", (short) 300);
+        tag.putInt("int", Integer.MIN_VALUE);
+        tag.putLong("long", Long.MAX_VALUE);
+        tag.putFloat("float", 0.1f);
+        tag.putDouble("double", -1.0E10);
+        tag.putString("string", "a \"quoted\" 'string'\\");
+        tag.putString("unicode", "\u00e9\u0000\n");
+        tag.putString("key with spaces", "");
+        tag.putString("", "empty name");
+        tag.putByteArray("bytes", new byte[] {1, -1});
+        tag.putIntArray("ints", new int[] {});
+        tag.putLongArray("longs", new long[] {1L, -2L});
+
+        final ListTag numbers = new ListTag();
+        numbers.addInt(1);
+        numbers.addInt(2);
+        tag.put("numbers", numbers);
+        tag.put("empty", new ListTag());
+
+        final ListTag compounds = new ListTag();
+        final CompoundTag nested = new CompoundTag();
+        nested.putString("id", "minecraft:stone");
+        compounds.add(nested);
+        compounds.add(new CompoundTag());
+        tag.put("compounds", compounds);
+        return tag;
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        final CompoundTag tag = everything();
+        assertEquals(tag, Snbt.read(Snbt.write(tag)));
+
+        final StringBuilder out = new StringBuilder();
+        Snbt.write(tag, out);
+        assertEquals(Snbt.write(tag), out.toString());
+    }
+
+    @Test
+    public void write() throws IOException {
+        final CompoundTag tag = new CompoundTag();
+        tag.putByte("Count", (byte) 1);
+        tag.putIntArray("Pos", new int[] {1, 2, 3});
+        tag.putString("key with spaces", "it's");
+        tag.putString("quote", "say \"hi\"");
+        tag.putString("both", "'\"");
+
+        final String snbt = Snbt.write(tag);
+        assertEquals(tag, Snbt.read(snbt));
+        for (final String expected : new String[] {"Count:1b", "Pos:[I;1,2,3]", "\"key with spaces\":\"it's\"",
+                "quote:'say \"hi\"'", "both:\"'\\\"\""}) {
+            if (!snbt.contains(expected)) {
+                throw new AssertionError(expected + " not in " + snbt);
+            }
+        }
+    }
+
+    @Test
+    public void numbers() throws IOException {
+        assertEquals(new ByteTag((byte) -5), Snbt.readTag("-5b"));
+        assertEquals(new ShortTag((short) 7), Snbt.readTag("7S"));
+        assertEquals(new IntTag(42), Snbt.readTag("+42"));
+        assertEquals(new LongTag(3000000000L), Snbt.readTag("3000000000L"));
+        assertEquals(new FloatTag(0.5f), Snbt.readTag("0.5f"));
+        assertEquals(new DoubleTag(1.5), Snbt.readTag("1.5"));
+        assertEquals(new DoubleTag(1.0E10), Snbt.readTag("1.0E10d"));
+        assertEquals(new ByteTag((byte) 1), Snbt.readTag("true"));
+        assertEquals(new ByteTag((byte) 0), Snbt.readTag("false"));
+    }
+
+    @Test
+    public void strings() throws IOException {
+        assertEquals(new StringTag("abc.def-g_h+"), Snbt.readTag("abc.def-g_h+"));
+        assertEquals(new StringTag("it's"), Snbt.readTag("'it\\'s'"));
+        assertEquals(new StringTag("a\\b\n\u00e9"), Snbt.readTag("\"a\\\\b\\n\\u00e9\""));
+        // Too large for an int, so not a number
+        assertEquals(new StringTag("2147483648"), Snbt.readTag("2147483648"));
+    }
+
+    @Test
+    public void arraysAndLists() throws IOException {
+        final CompoundTag tag = Snbt.read(" { bytes : [B; 1b, -1b] , ints:[I;], longs:[L;1l,-2L], list:[ 1, 2, 3 ] } ");
+        assertArrayEquals(new byte[] {1, -1}, tag.getByteArray("bytes"));
+        assertArrayEquals(new int[0], tag.getIntArray("ints"));
+        assertArrayEquals(new long[] {1L, -2L}, tag.getLongArray("longs"));
+
+        final ListTag list = (ListTag) tag.get("list");
+        assertEquals(NbtConstants.TAG_INT, list.getElementType());
+        assertEquals(3, list.size());
+        assertEquals(3, list.getInt(2));
+    }
+
+    @Test(expected = IOException.class)
+    public void unterminatedCompound() throws IOException {
+        Snbt.read("{a:1b");
+    }
+
+    @Test(expected = IOException.class)
+    public void missingValue() throws IOException {
+        Snbt.read("{a:}");
+    }
+
+    @Test(expected = IOException.class)
+    public void trailingComma() throws IOException {
+        Snbt.read("{a:1,}");
+    }
+
+    @Test(expected = IOException.class)
+    public void trailingData() throws IOException {
+        Snbt.read("{a:1b}x");
+    }
+
+    @Test(expected = IOException.class)
+    public void unterminatedString() throws IOException {
+        Snbt.read("{\"a:1}");
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidEscape() throws IOException {
+        Snbt.readTag("\"\\q\"");
+    }
+
+    @Test(expected = IOException.class)
+    public void mixedList() throws IOException {
+        Snbt.readTag("[1,2b]");
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidArrayElement() throws IOException {
+        Snbt.readTag("[I;1,2b]");
+    }
+
+    @Test(expected = IOException.class)
+    public void notACompound() throws IOException {
+        Snbt.read("[1,2]");
+    }
+
+    @Test(expected = IOException.class)
+    public void nestedTooDeeply() throws IOException {
+        final StringBuilder snbt = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            snbt.append('[');
+        }
+        Snbt.readTag(snbt);
+    }
+
+}